@@ -0,0 +1,29 @@
+package com.example.demo.configs;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.example.demo.services.cache.DetailCache;
+
+@Configuration
+@ConditionalOnProperty(name = "cache.detail.enabled", havingValue = "true", matchIfMissing = true)
+public class DetailCacheConfig {
+
+    // Сбрасывает локальные копии карточек, изменённых на любом из узлов
+    @Bean
+    public RedisMessageListenerContainer detailCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                      DetailCache detailCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> detailCache.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(DetailCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
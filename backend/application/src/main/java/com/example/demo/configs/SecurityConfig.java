@@ -27,6 +27,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
 import org.springframework.web.cors.CorsConfiguration;
 
+import com.example.demo.dtos.page.CursorPage;
 import com.example.demo.security.CustomJwtAuthentication;
 import com.example.demo.security.CustomUserPrincipal;
 import com.example.demo.security.OidcUserAdapter;
@@ -41,7 +42,11 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {    
-        http.cors(cors -> cors.configurationSource(request -> new CorsConfiguration().applyPermitDefaultValues()));
+        http.cors(cors -> cors.configurationSource(request -> {
+            CorsConfiguration configuration = new CorsConfiguration().applyPermitDefaultValues();
+            configuration.addExposedHeader(CursorPage.NEXT_CURSOR_HEADER);
+            return configuration;
+        }));
         http.oauth2ResourceServer(oauth2 -> oauth2
             .jwt(jwt -> jwt
                 .jwtAuthenticationConverter(customJwtAuthenticationConverter()) 
@@ -65,6 +70,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(c -> c
                     .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                     .requestMatchers("/error").permitAll()
+                    .requestMatchers("/api/admin/**").hasRole("ADMIN")
                     .requestMatchers("/api/**").authenticated()
                     .requestMatchers("/api/view/posts/**").authenticated()
                     .requestMatchers("/api/security/profile").authenticated()
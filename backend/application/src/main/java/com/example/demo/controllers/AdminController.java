@@ -0,0 +1,114 @@
+package com.example.demo.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dtos.admin.ImportResult;
+import com.example.demo.services.EventService;
+import com.example.demo.services.ProjectService;
+import com.example.demo.services.UserProfileService;
+import com.example.demo.services.search.LuceneSearch;
+import com.example.demo.services.transfer.BulkCopyService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final LuceneSearch luceneSearch;
+    private final EventService eventService;
+    private final ProjectService projectService;
+    private final UserProfileService userProfileService;
+    private final BulkCopyService bulkCopyService;
+
+    @Operation(summary = "Пересобрать поисковый индекс",
+            description = "Заново читает события, проекты и профили из БД. Возвращает число документов каждого типа. Только для ADMIN.")
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSearchIndex() {
+        return ResponseEntity.ok(luceneSearch.rebuild());
+    }
+
+    @Operation(summary = "Выгрузить все события",
+            description = "NDJSON: одно событие в строке, строки отдаются по мере чтения из БД. Только для ADMIN.")
+    @GetMapping(value = "/export/events", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportEvents(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        eventService.export(response.getOutputStream());
+    }
+
+    @Operation(summary = "Выгрузить все проекты",
+            description = "NDJSON: один проект в строке, строки отдаются по мере чтения из БД. Только для ADMIN.")
+    @GetMapping(value = "/export/projects", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportProjects(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        projectService.export(response.getOutputStream());
+    }
+
+    @Operation(summary = "Выгрузить все профили",
+            description = "NDJSON: один профиль в строке, строки отдаются по мере чтения из БД. Только для ADMIN.")
+    @GetMapping(value = "/export/user-profiles", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUserProfiles(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userProfileService.export(response.getOutputStream());
+    }
+
+    @Operation(summary = "Загрузить профили из CSV",
+            description = "COPY во временную таблицу и перенос одним набором запросов. Колонки: id, first_name, last_name, description, status, skills, interests; "
+                    + "списки терминов через '|'. Только для ADMIN.")
+    @PostMapping(value = "/copy/user-profiles", consumes = "text/csv")
+    public ResponseEntity<ImportResult> importUserProfiles(InputStream body) {
+        return ResponseEntity.ok(bulkCopyService.importUserProfiles(body));
+    }
+
+    @Operation(summary = "Выгрузить профили в CSV",
+            description = "COPY TO STDOUT в формате загрузки. Только для ADMIN.")
+    @GetMapping(value = "/copy/user-profiles", produces = "text/csv")
+    public void exportUserProfilesCsv(HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        bulkCopyService.exportUserProfiles(response.getOutputStream());
+    }
+
+    @Operation(summary = "Загрузить события из CSV",
+            description = "COPY во временную таблицу и перенос одним набором запросов. Колонки: id, organizer_id, name, description, event_time, place, latitude, longitude, tags; "
+                    + "списки терминов через '|'. Только для ADMIN.")
+    @PostMapping(value = "/copy/events", consumes = "text/csv")
+    public ResponseEntity<ImportResult> importEvents(InputStream body) {
+        return ResponseEntity.ok(bulkCopyService.importEvents(body));
+    }
+
+    @Operation(summary = "Выгрузить события в CSV",
+            description = "COPY TO STDOUT в формате загрузки. Только для ADMIN.")
+    @GetMapping(value = "/copy/events", produces = "text/csv")
+    public void exportEventsCsv(HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        bulkCopyService.exportEvents(response.getOutputStream());
+    }
+
+    @Operation(summary = "Загрузить проекты из CSV",
+            description = "COPY во временную таблицу и перенос одним набором запросов. Колонки: id, organizer_id, name, description, status, invitation_code, tags; "
+                    + "списки терминов через '|'. Только для ADMIN.")
+    @PostMapping(value = "/copy/projects", consumes = "text/csv")
+    public ResponseEntity<ImportResult> importProjects(InputStream body) {
+        return ResponseEntity.ok(bulkCopyService.importProjects(body));
+    }
+
+    @Operation(summary = "Выгрузить проекты в CSV",
+            description = "COPY TO STDOUT в формате загрузки. Только для ADMIN.")
+    @GetMapping(value = "/copy/projects", produces = "text/csv")
+    public void exportProjectsCsv(HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        bulkCopyService.exportProjects(response.getOutputStream());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.controllers;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dtos.autocomplete.TermSuggestion;
+import com.example.demo.services.autocomplete.AutocompleteService;
+import com.example.demo.services.autocomplete.TermType;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+@RequiredArgsConstructor
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    @Operation(summary = "Подсказки тегов, навыков и интересов",
+            description = "Возвращает уже используемые термины, начинающиеся с префикса, — самые популярные первыми. "
+                    + "Регистр и лишние пробелы не учитываются.")
+    @GetMapping
+    public ResponseEntity<List<TermSuggestion>> complete(
+            @Parameter(description = "TAG, SKILL или INTEREST")
+            @RequestParam TermType type,
+            @Parameter(description = "Начало термина; пустой — самые популярные термины")
+            @RequestParam(required = false) String prefix,
+            @Parameter(description = "Число подсказок, не больше autocomplete.max-suggestions")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(autocompleteService.complete(type, prefix, limit));
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.demo.controllers;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,10 +17,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.demo.dtos.event.CalendarDay;
 import com.example.demo.dtos.event.EventRequestDto;
 import com.example.demo.dtos.event.EventResponse;
 import com.example.demo.dtos.event.EventSearchRequest;
+import com.example.demo.dtos.event.NearbyEvent;
+import com.example.demo.dtos.event.NearbyEventsRequest;
 import com.example.demo.dtos.event.ParticipantFilterRequest;
+import com.example.demo.dtos.reaction.LikeResponse;
+import com.example.demo.dtos.reaction.ParticipantsRequest;
+import com.example.demo.dtos.reaction.ParticipantsResponse;
+import com.example.demo.dtos.search.FacetedSearchResponse;
+import com.example.demo.dtos.search.SearchHit;
 import com.example.demo.services.EventService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -59,14 +70,62 @@ public class EventController {
         return ResponseEntity.ok(eventService.create(request));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<EventResponse>> createAll(
+            @RequestBody List<EventRequestDto> requests
+    ) {
+        return ResponseEntity.ok(eventService.createAll(requests));
+    }
+
     @GetMapping("/recommendations")
-    public ResponseEntity<List<EventResponse>> getEventRecommendations() {
-        return ResponseEntity.ok(eventService.getRecommendations());
+    public ResponseEntity<List<EventResponse>> getEventRecommendations(
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(eventService.getRecommendations(limit));
+    }
+
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<EventResponse>> getUpcoming(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Boolean onlyMyEvents,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return eventService.upcoming(from, to, onlyMyEvents, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyEvent>> getNearby(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double maxLon,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit
+    ) {
+        NearbyEventsRequest request = new NearbyEventsRequest(lat, lon, radiusKm, minLat, minLon, maxLat, maxLon, from, to);
+        return ResponseEntity.ok(eventService.nearby(request, limit));
+    }
+
+    @GetMapping("/calendar")
+    public ResponseEntity<List<CalendarDay>> getCalendar(
+            @RequestParam YearMonth month,
+            @RequestParam(required = false) Boolean onlyMyEvents
+    ) {
+        return ResponseEntity.ok(eventService.calendar(month, onlyMyEvents));
     }
 
     @GetMapping
-    public ResponseEntity<List<EventResponse>> findAll() {
-        return ResponseEntity.ok(eventService.findAll());
+    public ResponseEntity<List<EventResponse>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return eventService.findAll(cursor, limit).toResponseEntity();
     }
 
     @GetMapping("/{id}")
@@ -79,6 +138,14 @@ public class EventController {
         return ResponseEntity.ok(eventService.getById(id, filter));
     }
 
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<EventResponse>> getSimilar(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(eventService.getSimilar(id, limit));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<EventResponse> update(@PathVariable Long id, @RequestBody EventRequestDto request) {
         return ResponseEntity.ok(eventService.update(id, request));
@@ -100,14 +167,31 @@ public class EventController {
         return ResponseEntity.ok(eventService.removeParticipant(id));
     }
 
+    @PostMapping("/{id}/participants/batch")
+    public ResponseEntity<ParticipantsResponse> addParticipants(
+            @PathVariable Long id,
+            @Valid @RequestBody ParticipantsRequest request
+    ) {
+        return ResponseEntity.ok(eventService.addParticipants(id, request));
+    }
+
+    @DeleteMapping("/{id}/participants/batch")
+    public ResponseEntity<ParticipantsResponse> removeParticipants(
+            @PathVariable Long id,
+            @Valid @RequestBody ParticipantsRequest request
+    ) {
+        return ResponseEntity.ok(eventService.removeParticipants(id, request));
+    }
+
     @Operation(
         summary = "Search events",
-        description = "Searches for events by name, eventTime, place (via Specification) and tags (filtered manually)."
+        description = "Searches for events by name, eventTime, place and tags (all via Specification; an event matches if it has any of the given tags). "
+                + "Results are ordered by id; pass the X-Next-Cursor response header as the cursor parameter to get the next page."
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
-            description = "List of events matching the search criteria",
+            description = "Page of events matching the search criteria",
             content = @Content(
                 mediaType = "application/json",
                 array = @ArraySchema(schema = @Schema(implementation = EventResponse.class))
@@ -118,18 +202,39 @@ public class EventController {
     })
     @PostMapping("/search")
     public ResponseEntity<List<EventResponse>> search(
-            @RequestBody EventSearchRequest request
+            @RequestBody EventSearchRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return eventService.search(request, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/search/full-text")
+    public ResponseEntity<List<SearchHit<EventResponse>>> fullTextSearch(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return eventService.fullTextSearch(q, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/search/faceted")
+    public ResponseEntity<FacetedSearchResponse<EventResponse>> indexSearch(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Set<String> tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
-        return ResponseEntity.ok(eventService.search(request));
+        return eventService.indexSearch(q, tag, cursor, limit).toResponseEntity();
     }
 
     @PostMapping("/{id}/like")
-    public EventResponse likeEvent(@PathVariable Long id) {
+    public LikeResponse likeEvent(@PathVariable Long id) {
         return eventService.likeEvent(id);
     }
 
     @DeleteMapping("/{id}/like")
-    public EventResponse unlikeEvent(@PathVariable Long id) {
+    public LikeResponse unlikeEvent(@PathVariable Long id) {
         return eventService.unlikeEvent(id);
     }
 }
@@ -1,7 +1,9 @@
 package com.example.demo.controllers;
 
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,8 +18,15 @@ import com.example.demo.dtos.project.ParticipantFilterRequest;
 import com.example.demo.dtos.project.ProjectRequestDto;
 import com.example.demo.dtos.project.ProjectResponse;
 import com.example.demo.dtos.project.ProjectSearchRequest;
+import com.example.demo.dtos.project.TeamSuggestionResponse;
+import com.example.demo.dtos.reaction.LikeResponse;
+import com.example.demo.dtos.reaction.ParticipantsRequest;
+import com.example.demo.dtos.reaction.ParticipantsResponse;
+import com.example.demo.dtos.search.FacetedSearchResponse;
+import com.example.demo.dtos.search.SearchHit;
 import com.example.demo.services.ProjectService;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -32,9 +41,17 @@ public class ProjectController {
         return projectService.create(request);
     }
 
+    @PostMapping("/batch")
+    public List<ProjectResponse> createAll(@RequestBody List<ProjectRequestDto> requests) {
+        return projectService.createAll(requests);
+    }
+
     @GetMapping
-    public List<ProjectResponse> findAll() {
-        return projectService.findAll();
+    public ResponseEntity<List<ProjectResponse>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return projectService.findAll(cursor, limit).toResponseEntity();
     }
 
     @GetMapping("/{id}")
@@ -71,23 +88,77 @@ public class ProjectController {
         return projectService.removeParticipant(id);
     }
 
+    @PostMapping("/{id}/participants/batch")
+    public ParticipantsResponse addParticipants(
+            @PathVariable Long id,
+            @Valid @RequestBody ParticipantsRequest request
+    ) {
+        return projectService.addParticipants(id, request);
+    }
+
+    @DeleteMapping("/{id}/participants/batch")
+    public ParticipantsResponse removeParticipants(
+            @PathVariable Long id,
+            @Valid @RequestBody ParticipantsRequest request
+    ) {
+        return projectService.removeParticipants(id, request);
+    }
+
     @PostMapping("/search")
-    public List<ProjectResponse> search(@RequestBody ProjectSearchRequest request) {
-        return projectService.search(request);
+    public ResponseEntity<List<ProjectResponse>> search(
+            @RequestBody ProjectSearchRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return projectService.search(request, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/search/full-text")
+    public ResponseEntity<List<SearchHit<ProjectResponse>>> fullTextSearch(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return projectService.fullTextSearch(q, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/search/faceted")
+    public ResponseEntity<FacetedSearchResponse<ProjectResponse>> indexSearch(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Set<String> tag,
+            @RequestParam(required = false) Set<String> status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return projectService.indexSearch(q, tag, status, cursor, limit).toResponseEntity();
     }
 
     @GetMapping("/recommendations")
-    public List<ProjectResponse> getRecommendations() {
-        return projectService.getRecommendations();
+    public List<ProjectResponse> getRecommendations(@RequestParam(required = false) Integer limit) {
+        return projectService.getRecommendations(limit);
+    }
+
+    @GetMapping("/{id}/similar")
+    public List<ProjectResponse> getSimilar(@PathVariable Long id, @RequestParam(required = false) Integer limit) {
+        return projectService.getSimilar(id, limit);
+    }
+
+    @GetMapping("/{id}/team-suggestions")
+    public TeamSuggestionResponse suggestTeam(
+            @PathVariable Long id,
+            @RequestParam(required = false) Set<String> skills,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return projectService.suggestTeam(id, skills, limit);
     }
 
     @PostMapping("/{id}/like")
-    public ProjectResponse likeProject(@PathVariable Long id) {
+    public LikeResponse likeProject(@PathVariable Long id) {
         return projectService.likeProject(id);
     }
 
     @DeleteMapping("/{id}/unlike")
-    public ProjectResponse unlikeProject(@PathVariable Long id) {
+    public LikeResponse unlikeProject(@PathVariable Long id) {
         return projectService.unlikeProject(id);
     }
 
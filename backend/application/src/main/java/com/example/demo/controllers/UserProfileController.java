@@ -1,6 +1,7 @@
 package com.example.demo.controllers;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.http.ResponseEntity;
@@ -11,11 +12,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.dtos.UserProfile.UserProfileRequest;
 import com.example.demo.dtos.UserProfile.UserProfileResponse;
 import com.example.demo.dtos.UserProfile.UserProfileSearchRequest;
+import com.example.demo.dtos.reaction.StarResponse;
+import com.example.demo.dtos.search.FacetedSearchResponse;
+import com.example.demo.dtos.search.SearchHit;
 import com.example.demo.services.UserProfileService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -61,21 +66,66 @@ public class UserProfileController {
     }
 
     @GetMapping("/recommendations")
-    public ResponseEntity<List<UserProfileResponse>> getRecommendations() {
-        return ResponseEntity.ok(userProfileService.getRecommendations());
+    public ResponseEntity<List<UserProfileResponse>> getRecommendations(
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(userProfileService.getRecommendations(limit));
+    }
+
+    @GetMapping("/similar")
+    public ResponseEntity<List<UserProfileResponse>> getSimilar(
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(userProfileService.getSimilar(limit));
     }
 
     @GetMapping
-    public ResponseEntity<List<UserProfileResponse>> findAll() {
-        List<UserProfileResponse> profiles = userProfileService.findAll();
-        return ResponseEntity.ok(profiles);
+    public ResponseEntity<List<UserProfileResponse>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return userProfileService.findAll(cursor, limit).toResponseEntity();
     }
 
     @PostMapping("/search")
-    @Operation(summary = "Поиск профилей пользователей", description = "Ищет профили по имени, фамилии, статусу, навыкам и интересам")
-    public ResponseEntity<List<UserProfileResponse>> search(@RequestBody UserProfileSearchRequest request) {
-        List<UserProfileResponse> results = userProfileService.search(request);
-        return ResponseEntity.ok(results);
+    @Operation(summary = "Поиск профилей пользователей", description = "Ищет профили по имени, фамилии, статусу, навыкам и интересам. "
+            + "Курсор следующей страницы возвращается в заголовке X-Next-Cursor")
+    public ResponseEntity<List<UserProfileResponse>> search(
+            @RequestBody UserProfileSearchRequest request,
+            @Parameter(description = "Курсор из заголовка X-Next-Cursor предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы, ограничен pagination.max-page-size")
+            @RequestParam(required = false) Integer limit) {
+        return userProfileService.search(request, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/search/full-text")
+    @Operation(summary = "Полнотекстовый поиск профилей", description = "Ищет по имени, фамилии, навыкам, интересам и описанию, "
+            + "лучшие совпадения первыми. Курсор следующей страницы возвращается в заголовке X-Next-Cursor")
+    public ResponseEntity<List<SearchHit<UserProfileResponse>>> fullTextSearch(
+            @Parameter(description = "Запрос в синтаксисе websearch: слова, \"фраза\", -исключение, or")
+            @RequestParam String q,
+            @Parameter(description = "Курсор из заголовка X-Next-Cursor предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы, ограничен pagination.max-page-size")
+            @RequestParam(required = false) Integer limit) {
+        return userProfileService.fullTextSearch(q, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/search/faceted")
+    @Operation(summary = "Поиск профилей с фасетами", description = "Поиск по встроенному индексу: совпадения и число профилей "
+            + "по навыкам, интересам и статусам. Курсор следующей страницы возвращается в заголовке X-Next-Cursor")
+    public ResponseEntity<FacetedSearchResponse<UserProfileResponse>> indexSearch(
+            @Parameter(description = "Запрос: слова, \"фраза\", -исключение, префикс*; пустой — все профили")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Навыки; профиль подходит, если у него есть любой из них")
+            @RequestParam(required = false) Set<String> skill,
+            @Parameter(description = "Статусы профиля")
+            @RequestParam(required = false) Set<String> status,
+            @Parameter(description = "Курсор из заголовка X-Next-Cursor предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы, ограничен pagination.max-page-size")
+            @RequestParam(required = false) Integer limit) {
+        return userProfileService.indexSearch(q, skill, status, cursor, limit).toResponseEntity();
     }
 
     @Operation(summary = "Получить профиль пользователя по ID", description = "Возвращает профиль пользователя по его уникальному идентификатору")
@@ -127,12 +177,12 @@ public class UserProfileController {
     }
 
         @PostMapping("/{id}/star")
-        public UserProfileResponse starUser(@PathVariable UUID id) {
+        public StarResponse starUser(@PathVariable UUID id) {
                 return userProfileService.starUser(id);
         }
 
         @DeleteMapping("/{id}/star")
-        public UserProfileResponse unstarUser(@PathVariable UUID id) {
+        public StarResponse unstarUser(@PathVariable UUID id) {
                 return userProfileService.unstarUser(id);
         }
 }
\ No newline at end of file
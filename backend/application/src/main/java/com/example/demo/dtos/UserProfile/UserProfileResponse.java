@@ -3,7 +3,8 @@ package com.example.demo.dtos.UserProfile;
 import java.util.Set;
 import java.util.UUID;
 
-import com.example.demo.entities.UserProfile;
+import com.example.demo.dtos.card.UserProfileCard;
+import com.example.demo.dtos.card.ViewerOverlay;
 import com.example.demo.entities.UserStatus;
 
 public record UserProfileResponse(
@@ -18,20 +19,17 @@ public record UserProfileResponse(
         Boolean starredByCurrentUser    
 ) {
 
-    public static UserProfileResponse from(UserProfile user, UUID currentUserId) {
-        boolean starredByMe = user.getStars().stream()
-                .anyMatch(u -> u.getId().equals(currentUserId));
-
+    public static UserProfileResponse from(UserProfileCard card, ViewerOverlay viewer) {
         return new UserProfileResponse(
-                user.getId(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getDescription(),
-                user.getStatus(),
-                user.getSkills(),
-                user.getInterests(),
-                user.getStars().size(),
-                starredByMe
+                card.id(),
+                card.firstName(),
+                card.lastName(),
+                card.description(),
+                card.status(),
+                card.skills(),
+                card.interests(),
+                card.starCount(),
+                viewer.starred(card.id())
         );
     }
 }
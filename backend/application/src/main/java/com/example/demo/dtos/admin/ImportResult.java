@@ -0,0 +1,7 @@
+package com.example.demo.dtos.admin;
+
+// received — строк в файле, imported — добавлено; остальные пропущены (уже есть или не прошли проверку)
+public record ImportResult(
+    long received,
+    long imported
+) {}
@@ -0,0 +1,8 @@
+package com.example.demo.dtos.autocomplete;
+
+// Существующий термин и число объектов, у которых он указан
+public record TermSuggestion(
+        String term,
+        int count
+) {
+}
@@ -0,0 +1,51 @@
+package com.example.demo.dtos.card;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.example.demo.entities.Event;
+import com.example.demo.entities.UserProfile;
+import com.example.demo.services.terms.TermDictionary;
+
+// Профили организатора и участников хранятся отдельными карточками и подставляются по id.
+// Теги — id для сравнения в фильтрах и строки из словаря для ответа
+public record EventCard(
+    Long id,
+    UUID organizerId,
+    String name,
+    String description,
+    LocalDateTime eventTime,
+    String place,
+    Double latitude,
+    Double longitude,
+    Set<Integer> tagIds,
+    Set<String> tags,
+    Set<UUID> participantIds,
+    Integer participantCount,
+    Integer likeCount
+) {
+
+    public static EventCard from(Event event, TermDictionary terms) {
+        return new EventCard(
+                event.getId(),
+                event.getOrganizer().getId(),
+                event.getName(),
+                event.getDescription(),
+                event.getEventTime(),
+                event.getPlace(),
+                event.getLatitude(),
+                event.getLongitude(),
+                copyOf(event.getTagIds()),
+                terms.terms(event.getTagIds()),
+                event.getParticipants().stream().map(UserProfile::getId).collect(Collectors.toSet()),
+                event.getParticipantCount(),
+                event.getLikeCount()
+        );
+    }
+
+    private static Set<Integer> copyOf(Set<Integer> values) {
+        return values == null ? Set.of() : Set.copyOf(values);
+    }
+}
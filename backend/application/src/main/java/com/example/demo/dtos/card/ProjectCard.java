@@ -0,0 +1,46 @@
+package com.example.demo.dtos.card;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.example.demo.entities.Project;
+import com.example.demo.entities.ProjectStatus;
+import com.example.demo.entities.UserProfile;
+import com.example.demo.services.terms.TermDictionary;
+
+// Код приглашения отдаётся клиенту только организатору, см. ProjectService
+public record ProjectCard(
+    Long id,
+    UUID organizerId,
+    String name,
+    String description,
+    Set<Integer> tagIds,
+    Set<String> tags,
+    Set<UUID> participantIds,
+    Integer participantCount,
+    Integer likeCount,
+    String invitationCode,
+    ProjectStatus status
+) {
+
+    public static ProjectCard from(Project project, TermDictionary terms) {
+        return new ProjectCard(
+                project.getId(),
+                project.getOrganizer().getId(),
+                project.getName(),
+                project.getDescription(),
+                copyOf(project.getTagIds()),
+                terms.terms(project.getTagIds()),
+                project.getParticipants().stream().map(UserProfile::getId).collect(Collectors.toSet()),
+                project.getParticipantCount(),
+                project.getLikeCount(),
+                project.getInvitationCode(),
+                project.getStatus()
+        );
+    }
+
+    private static Set<Integer> copyOf(Set<Integer> values) {
+        return values == null ? Set.of() : Set.copyOf(values);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.dtos.card;
+
+import java.util.Set;
+import java.util.UUID;
+
+import com.example.demo.entities.UserProfile;
+import com.example.demo.entities.UserStatus;
+import com.example.demo.services.terms.TermDictionary;
+
+// Не зависящая от пользователя часть профиля, которую можно кэшировать.
+// Навыки и интересы — id для сравнения в фильтрах и строки из словаря для ответа
+public record UserProfileCard(
+        UUID id,
+        String firstName,
+        String lastName,
+        String description,
+        UserStatus status,
+        Set<Integer> skillIds,
+        Set<String> skills,
+        Set<Integer> interestIds,
+        Set<String> interests,
+        Integer starCount
+) {
+
+    public static UserProfileCard from(UserProfile user, TermDictionary terms) {
+        return new UserProfileCard(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getDescription(),
+                user.getStatus(),
+                copyOf(user.getSkillIds()),
+                terms.terms(user.getSkillIds()),
+                copyOf(user.getInterestIds()),
+                terms.terms(user.getInterestIds()),
+                user.getStarCount()
+        );
+    }
+
+    private static Set<Integer> copyOf(Set<Integer> values) {
+        return values == null ? Set.of() : Set.copyOf(values);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.dtos.card;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Персональная часть ответа, считается на каждый запрос поверх общих карточек
+public record ViewerOverlay(
+    UUID viewerId,
+    Set<Long> likedIds,
+    Map<Long, Long> likeCountDeltas,
+    Set<UUID> starredIds
+) {
+
+    public boolean liked(Long id) {
+        return likedIds.contains(id);
+    }
+
+    // Лайки, ещё не сброшенные из Redis в like_count
+    public int likeCount(Long id, int persistedCount) {
+        return (int) (persistedCount + likeCountDeltas.getOrDefault(id, 0L));
+    }
+
+    public boolean starred(UUID profileId) {
+        return starredIds.contains(profileId);
+    }
+
+    public boolean isViewer(UUID profileId) {
+        return viewerId.equals(profileId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dtos.event;
+
+import java.time.LocalDate;
+
+public record CalendarDay(
+    LocalDate date,
+    long count
+) {}
@@ -19,5 +19,7 @@ public class EventRequestDto {
     private String description;
     private LocalDateTime eventTime;
     private String place;
+    private Double latitude;
+    private Double longitude;
     private Set<String> tags;
 }
@@ -1,9 +1,17 @@
 package com.example.demo.dtos.event;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import com.example.demo.dtos.UserProfile.UserProfileResponse;
+import com.example.demo.dtos.card.EventCard;
+import com.example.demo.dtos.card.UserProfileCard;
+import com.example.demo.dtos.card.ViewerOverlay;
 
 public record EventResponse(
     Long id,
@@ -12,9 +20,36 @@ public record EventResponse(
     String description,
     LocalDateTime  eventTime,
     String place,
+    Double latitude,
+    Double longitude,
     Set<String> tags,
     Set<UserProfileResponse> participantIds,
+    Integer participantCount,
     Integer likeCount,
     Boolean likedByCurrentUser
-) {}
+) {
 
+    public static EventResponse from(EventCard event, Map<UUID, UserProfileCard> profiles,
+                                     Predicate<UserProfileCard> participantFilter, ViewerOverlay viewer) {
+        return new EventResponse(
+                event.id(),
+                UserProfileResponse.from(profiles.get(event.organizerId()), viewer),
+                event.name(),
+                event.description(),
+                event.eventTime(),
+                event.place(),
+                event.latitude(),
+                event.longitude(),
+                event.tags(),
+                event.participantIds().stream()
+                        .map(profiles::get)
+                        .filter(Objects::nonNull)
+                        .filter(participantFilter)
+                        .map(p -> UserProfileResponse.from(p, viewer))
+                        .collect(Collectors.toSet()),
+                event.participantCount(),
+                viewer.likeCount(event.id(), event.likeCount()),
+                viewer.liked(event.id())
+        );
+    }
+}
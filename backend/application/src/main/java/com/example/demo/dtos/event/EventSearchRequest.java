@@ -1,10 +1,13 @@
 package com.example.demo.dtos.event;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 public record EventSearchRequest(
     String name,
     String eventTime,
+    LocalDateTime from,
+    LocalDateTime to,
     String place,
     Set<String> tags,
     Boolean onlyMyEvents
@@ -0,0 +1,6 @@
+package com.example.demo.dtos.event;
+
+public record NearbyEvent(
+    EventResponse event,
+    double distanceKm
+) {}
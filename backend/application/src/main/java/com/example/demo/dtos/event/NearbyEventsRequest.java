@@ -0,0 +1,17 @@
+package com.example.demo.dtos.event;
+
+import java.time.LocalDateTime;
+
+// Центр с радиусом, прямоугольник карты или оба сразу; расстояние считается от центра,
+// а без него — от середины прямоугольника
+public record NearbyEventsRequest(
+    Double lat,
+    Double lon,
+    Double radiusKm,
+    Double minLat,
+    Double minLon,
+    Double maxLat,
+    Double maxLon,
+    LocalDateTime from,
+    LocalDateTime to
+) {}
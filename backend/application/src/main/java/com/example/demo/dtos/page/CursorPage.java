@@ -0,0 +1,36 @@
+package com.example.demo.dtos.page;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+
+public record CursorPage<T>(
+    List<T> items,
+    String nextCursor
+) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+
+    // Для мапперов, которым нужна вся страница сразу (например, флаги текущего пользователя одним запросом)
+    public <R> CursorPage<R> withItems(List<R> mapped) {
+        return new CursorPage<>(mapped, nextCursor);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    // Тело ответа остаётся массивом, курсор следующей страницы отдаётся в заголовке
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (hasNext()) {
+            builder.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(items);
+    }
+}
@@ -1,8 +1,16 @@
 package com.example.demo.dtos.project;
 
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import com.example.demo.dtos.UserProfile.UserProfileResponse;
+import com.example.demo.dtos.card.ProjectCard;
+import com.example.demo.dtos.card.UserProfileCard;
+import com.example.demo.dtos.card.ViewerOverlay;
 import com.example.demo.entities.ProjectStatus;
 
 public record ProjectResponse(
@@ -12,8 +20,33 @@ public record ProjectResponse(
     String description,
     Set<String> tags,
     Set<UserProfileResponse> participants,
+    Integer participantCount,
     Integer likeCount,         
     Boolean likedByCurrentUser,
     String invitationCode,
     ProjectStatus status
-) {}
+) {
+
+    public static ProjectResponse from(ProjectCard project, Map<UUID, UserProfileCard> profiles,
+                                       Predicate<UserProfileCard> participantFilter, ViewerOverlay viewer) {
+        return new ProjectResponse(
+                project.id(),
+                UserProfileResponse.from(profiles.get(project.organizerId()), viewer),
+                project.name(),
+                project.description(),
+                project.tags(),
+                project.participantIds().stream()
+                        .map(profiles::get)
+                        .filter(Objects::nonNull)
+                        .filter(participantFilter)
+                        .map(p -> UserProfileResponse.from(p, viewer))
+                        .collect(Collectors.toSet()),
+                project.participantCount(),
+                viewer.likeCount(project.id(), project.likeCount()),
+                viewer.liked(project.id()),
+                // Код приглашения видит только организатор
+                viewer.isViewer(project.organizerId()) ? project.invitationCode() : null,
+                project.status()
+        );
+    }
+}
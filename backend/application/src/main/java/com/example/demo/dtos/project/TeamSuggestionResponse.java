@@ -0,0 +1,13 @@
+package com.example.demo.dtos.project;
+
+import java.util.List;
+import java.util.Set;
+
+import com.example.demo.dtos.UserProfile.UserProfileResponse;
+
+public record TeamSuggestionResponse(
+        List<UserProfileResponse> members,
+        Set<String> coveredSkills,
+        Set<String> uncoveredSkills
+) {
+}
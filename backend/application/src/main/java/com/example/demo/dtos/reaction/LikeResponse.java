@@ -0,0 +1,7 @@
+package com.example.demo.dtos.reaction;
+
+public record LikeResponse(
+    Long id,
+    Integer likeCount,
+    Boolean likedByCurrentUser
+) {}
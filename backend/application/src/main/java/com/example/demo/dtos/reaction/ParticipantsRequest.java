@@ -0,0 +1,15 @@
+package com.example.demo.dtos.reaction;
+
+import java.util.Set;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+// Верхняя граница совпадает с batch.max-size по умолчанию; меньшее значение из конфигурации проверяет сервис
+public record ParticipantsRequest(
+    @NotEmpty
+    @Size(max = 500)
+    Set<@NotNull UUID> participantIds
+) {}
@@ -0,0 +1,8 @@
+package com.example.demo.dtos.reaction;
+
+// changed — сколько участников реально добавлено или удалено запросом
+public record ParticipantsResponse(
+    Long id,
+    Integer participantCount,
+    Integer changed
+) {}
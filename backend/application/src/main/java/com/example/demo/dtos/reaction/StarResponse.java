@@ -0,0 +1,9 @@
+package com.example.demo.dtos.reaction;
+
+import java.util.UUID;
+
+public record StarResponse(
+    UUID id,
+    Integer starCount,
+    Boolean starredByCurrentUser
+) {}
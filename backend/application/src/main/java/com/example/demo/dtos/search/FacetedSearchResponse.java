@@ -0,0 +1,26 @@
+package com.example.demo.dtos.search;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+
+import com.example.demo.dtos.page.CursorPage;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// Страница поиска по индексу вместе со счётчиками фасетов: измерение → значение → число совпадений.
+// Как и у CursorPage, курсор следующей страницы отдаётся в заголовке, а не в теле
+public record FacetedSearchResponse<T>(
+        List<SearchHit<T>> items,
+        Map<String, Map<String, Integer>> facets,
+        @JsonIgnore String nextCursor
+) {
+
+    public ResponseEntity<FacetedSearchResponse<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            builder.header(CursorPage.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(this);
+    }
+}
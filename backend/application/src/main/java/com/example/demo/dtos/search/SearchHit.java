@@ -0,0 +1,10 @@
+package com.example.demo.dtos.search;
+
+// Результат полнотекстового поиска: релевантность и фрагмент текста с подсвеченными совпадениями (<mark>).
+// Фрагмент — HTML: исходный текст в нём экранирован
+public record SearchHit<T>(
+        T item,
+        Float rank,
+        String snippet
+) {
+}
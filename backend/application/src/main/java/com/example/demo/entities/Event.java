@@ -4,10 +4,13 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -15,6 +18,9 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,16 +28,25 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "events")
+@NamedEntityGraph(
+        name = "Event.detail",
+        attributeNodes = {
+                @NamedAttributeNode("organizer"),
+                @NamedAttributeNode("participants")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Event {
 
+        // Последовательность с шагом 50: id известны до вставки, и Hibernate пишет строки пачками
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+        @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
         private Long id;
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "organizer_id", nullable = false)
         private UserProfile organizer;
 
@@ -44,15 +59,26 @@ public class Event {
 
         private String place;
 
+        private Double latitude;
+
+        private Double longitude;
+
+        // Из координат при записи; collate "C" — префиксы ячеек сравниваются побайтно
+        @Column(length = 12, columnDefinition = "varchar(12) collate \"C\"")
+        private String geohash;
+
+        // id терминов из словаря terms
         @ElementCollection
+        @BatchSize(size = 100)
         @CollectionTable(
-                name = "event_tags",
+                name = "event_tag_terms",
                 joinColumns = @JoinColumn(name = "event_id")
-                )
-        @Column(name = "tag")
-        private Set<String> tags = new HashSet<>();
+        )
+        @Column(name = "term_id")
+        private Set<Integer> tagIds = new HashSet<>();
 
         @ManyToMany
+        @BatchSize(size = 100)
         @JoinTable(
                 name = "event_participants",
                 joinColumns = @JoinColumn(name = "event_id"),
@@ -61,10 +87,18 @@ public class Event {
         private Set<UserProfile> participants = new HashSet<>();
 
         @ManyToMany
+        @BatchSize(size = 100)
         @JoinTable(
                 name = "event_likes",
                 joinColumns = @JoinColumn(name = "event_id"),
                 inverseJoinColumns = @JoinColumn(name = "user_profile_id")
         )
         private Set<UserProfile> likes = new HashSet<>();
+
+        // Счётчики меняются только атомарными UPDATE в репозитории
+        @Column(name = "like_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+        private int likeCount;
+
+        @Column(name = "participant_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+        private int participantCount;
 }
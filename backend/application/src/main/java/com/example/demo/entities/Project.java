@@ -3,12 +3,15 @@ package com.example.demo.entities;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -16,6 +19,9 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,16 +29,25 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "projects")
+@NamedEntityGraph(
+        name = "Project.detail",
+        attributeNodes = {
+                @NamedAttributeNode("organizer"),
+                @NamedAttributeNode("participants")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Project {
 
+        // Последовательность с шагом 50: id известны до вставки, и Hibernate пишет строки пачками
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_seq")
+        @SequenceGenerator(name = "projects_seq", sequenceName = "projects_seq", allocationSize = 50)
         private Long id;
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "organizer_id", nullable = false)
         private UserProfile organizer;
 
@@ -41,15 +56,18 @@ public class Project {
         @Column(length = 2000)
         private String description;
 
+        // id терминов из словаря terms
         @ElementCollection
+        @BatchSize(size = 100)
         @CollectionTable(
-                name = "project_tags",
+                name = "project_tag_terms",
                 joinColumns = @JoinColumn(name = "project_id")
         )
-        @Column(name = "tag")
-        private Set<String> tags = new HashSet<>();
+        @Column(name = "term_id")
+        private Set<Integer> tagIds = new HashSet<>();
 
         @ManyToMany
+        @BatchSize(size = 100)
         @JoinTable(
                 name = "project_participants",
                 joinColumns = @JoinColumn(name = "project_id"),
@@ -59,6 +77,7 @@ public class Project {
         private String invitationCode; 
 
         @ManyToMany
+        @BatchSize(size = 100)
         @JoinTable(
                 name = "project_likes",
                 joinColumns = @JoinColumn(name = "project_id"),
@@ -68,4 +87,11 @@ public class Project {
 
         @Enumerated(EnumType.STRING)
         private ProjectStatus status;
+
+        // Счётчики меняются только атомарными UPDATE в репозитории
+        @Column(name = "like_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+        private int likeCount;
+
+        @Column(name = "participant_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+        private int participantCount;
 }
@@ -0,0 +1,26 @@
+package com.example.demo.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// Общий словарь тегов, навыков и интересов. Строки только добавляются, см. TermDictionary
+@Entity
+@Table(name = "terms", uniqueConstraints = @UniqueConstraint(name = "uk_terms_term", columnNames = "term"))
+@Getter
+@NoArgsConstructor
+public class Term {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Integer id;
+
+        @Column(nullable = false)
+        private String term;
+}
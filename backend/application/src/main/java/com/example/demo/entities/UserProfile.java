@@ -4,6 +4,8 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -15,6 +17,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,6 +28,14 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "user_profiles")
+@NamedEntityGraph(
+        name = "UserProfile.detail",
+        attributeNodes = {
+                @NamedAttributeNode("skillIds"),
+                @NamedAttributeNode("interestIds")
+        }
+)
+@BatchSize(size = 100)
 @Getter
 @Setter
 @Builder
@@ -44,25 +56,29 @@ public class UserProfile {
         @Enumerated(EnumType.STRING)
         private UserStatus status;
 
+        // id терминов из словаря terms
         @ElementCollection(fetch = FetchType.LAZY)
+        @BatchSize(size = 100)
         @CollectionTable(
-                name = "user_profile_skills",
+                name = "user_profile_skill_terms",
                 joinColumns = @JoinColumn(name = "user_profile_id")
         )
-        @Column(name = "skill")
+        @Column(name = "term_id")
         @Builder.Default
-        private Set<String> skills = new HashSet<>();
+        private Set<Integer> skillIds = new HashSet<>();
 
         @ElementCollection(fetch = FetchType.LAZY)
+        @BatchSize(size = 100)
         @CollectionTable(
-                name = "user_profile_interests",
+                name = "user_profile_interest_terms",
                 joinColumns = @JoinColumn(name = "user_profile_id")
         )
-        @Column(name = "interest")
+        @Column(name = "term_id")
         @Builder.Default
-        private Set<String> interests = new HashSet<>();
+        private Set<Integer> interestIds = new HashSet<>();
 
         @ManyToMany
+        @BatchSize(size = 100)
         @JoinTable(
                 name = "user_profile_stars",
                 joinColumns = @JoinColumn(name = "target_user_id"),     
@@ -70,4 +86,8 @@ public class UserProfile {
         )
         @Builder.Default
         private Set<UserProfile> stars = new HashSet<>();
+
+        // Счётчик меняется только атомарными UPDATE в репозитории
+        @Column(name = "star_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+        private int starCount;
 }
\ No newline at end of file
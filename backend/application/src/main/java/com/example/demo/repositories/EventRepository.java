@@ -1,12 +1,178 @@
 package com.example.demo.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.entities.Event;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
 
+    // Загрузка карточек при промахе кэша: организатор и участники одним запросом,
+    // теги догружаются пачкой через @BatchSize
+    @EntityGraph("Event.detail")
+    List<Event> findAllDetailedByIdIn(Collection<Long> ids);
+
+    interface DayCount {
+        int getDayOfMonth();
+
+        long getTotal();
+    }
+
+    // Число событий по дням месяца [start, end): диапазонное чтение индекса по event_time
+    @Query("""
+            select extract(day from e.eventTime) as dayOfMonth, count(e) as total from Event e
+            where e.eventTime >= :start and e.eventTime < :end
+            group by extract(day from e.eventTime)
+            order by extract(day from e.eventTime)
+            """)
+    List<DayCount> countByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // То же по событиям организатора: индекс (organizer_id, event_time, id)
+    @Query("""
+            select extract(day from e.eventTime) as dayOfMonth, count(e) as total from Event e
+            where e.organizer.id = :organizerId and e.eventTime >= :start and e.eventTime < :end
+            group by extract(day from e.eventTime)
+            order by extract(day from e.eventTime)
+            """)
+    List<DayCount> countByDay(@Param("organizerId") UUID organizerId,
+                              @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("select e.likeCount from Event e where e.id = :id")
+    Optional<Integer> findLikeCount(@Param("id") Long id);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM event_likes WHERE event_id = :id AND user_profile_id = :userId)", nativeQuery = true)
+    boolean isLikedBy(@Param("id") Long id, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "UPDATE events SET like_count = like_count + :delta WHERE id = :id", nativeQuery = true)
+    int adjustLikeCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // Пакетная запись буферизованных лайков; возвращает число реально вставленных строк
+    @Modifying
+    @Query(value = """
+            INSERT INTO event_likes (event_id, user_profile_id)
+            SELECT e.id, u.id FROM events e
+            JOIN user_profiles u ON u.id IN (:userIds)
+            WHERE e.id = :id
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertLikes(@Param("id") Long id, @Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM event_likes WHERE event_id = :id AND user_profile_id IN (:userIds)", nativeQuery = true)
+    int deleteLikes(@Param("id") Long id, @Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @Query(value = "UPDATE events SET participant_count = participant_count + :delta WHERE id = :id", nativeQuery = true)
+    int adjustParticipantCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("select e.organizer.id from Event e where e.id = :id")
+    Optional<UUID> findOrganizerId(@Param("id") Long id);
+
+    // Набор участников одним запросом: несуществующие профили и уже добавленные пропускаются.
+    // Возвращает id реально добавленных
+    @Transactional
+    @Query(value = """
+            INSERT INTO event_participants (event_id, user_profile_id)
+            SELECT :id, u.id FROM user_profiles u
+            WHERE u.id IN (:userIds)
+            ON CONFLICT DO NOTHING
+            RETURNING user_profile_id
+            """, nativeQuery = true)
+    List<UUID> insertParticipants(@Param("id") Long id, @Param("userIds") Collection<UUID> userIds);
+
+    @Transactional
+    @Query(value = """
+            DELETE FROM event_participants
+            WHERE event_id = :id AND user_profile_id IN (:userIds)
+            RETURNING user_profile_id
+            """, nativeQuery = true)
+    List<UUID> deleteParticipants(@Param("id") Long id, @Param("userIds") Collection<UUID> userIds);
+
+    @Transactional
+    @Query(value = "UPDATE events SET participant_count = participant_count + :delta WHERE id = :id RETURNING participant_count",
+            nativeQuery = true)
+    Optional<Integer> shiftParticipantCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // Идемпотентный лайк: вставка в event_likes и сдвиг счётчика одним запросом.
+    // Пустой результат — нет события или профиля пользователя
+    @Transactional
+    @Query(value = """
+            WITH ins AS (
+                INSERT INTO event_likes (event_id, user_profile_id)
+                SELECT e.id, :userId FROM events e
+                WHERE e.id = :id AND EXISTS (SELECT 1 FROM user_profiles WHERE id = :userId)
+                ON CONFLICT DO NOTHING
+                RETURNING event_id
+            )
+            UPDATE events SET like_count = like_count + (SELECT COUNT(*) FROM ins)
+            WHERE id = :id AND EXISTS (SELECT 1 FROM user_profiles WHERE id = :userId)
+            RETURNING like_count
+            """, nativeQuery = true)
+    Optional<Integer> like(@Param("id") Long id, @Param("userId") UUID userId);
+
+    @Transactional
+    @Query(value = """
+            WITH del AS (
+                DELETE FROM event_likes
+                WHERE event_id = :id AND user_profile_id = :userId
+                RETURNING event_id
+            )
+            UPDATE events SET like_count = like_count - (SELECT COUNT(*) FROM del)
+            WHERE id = :id
+            RETURNING like_count
+            """, nativeQuery = true)
+    Optional<Integer> unlike(@Param("id") Long id, @Param("userId") UUID userId);
+
+    // Сначала блокируем строки с расхождением, а пересчитываем отдельным запросом: в READ COMMITTED
+    // его снимок берётся уже после блокировки, и лайк, закоммиченный в промежутке, не затрётся
+    @Query(value = """
+            SELECT t.id FROM events t
+            WHERE t.like_count <> (SELECT COUNT(*) FROM event_likes l WHERE l.event_id = t.id)
+            ORDER BY t.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockDriftedLikeCounts();
+
+    @Modifying
+    @Query(value = """
+            UPDATE events t
+            SET like_count = (SELECT COUNT(*) FROM event_likes l WHERE l.event_id = t.id)
+            WHERE t.id IN (:ids)
+            """, nativeQuery = true)
+    int reconcileLikeCounts(@Param("ids") Collection<Long> ids);
+
+    @Query(value = """
+            SELECT t.id FROM events t
+            WHERE t.participant_count <> (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = t.id)
+            ORDER BY t.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockDriftedParticipantCounts();
+
+    @Modifying
+    @Query(value = """
+            UPDATE events t
+            SET participant_count = (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = t.id)
+            WHERE t.id IN (:ids)
+            """, nativeQuery = true)
+    int reconcileParticipantCounts(@Param("ids") Collection<Long> ids);
+
+    // Какие из переданных id лайкнул пользователь: один запрос на страницу вместо обхода коллекций
+    @Query(value = "SELECT event_id FROM event_likes WHERE event_id IN (:ids) AND user_profile_id = :userId", nativeQuery = true)
+    Set<Long> findLikedIds(@Param("ids") Collection<Long> ids, @Param("userId") UUID userId);
 }
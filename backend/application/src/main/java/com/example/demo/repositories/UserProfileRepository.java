@@ -1,14 +1,72 @@
 package com.example.demo.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.entities.UserProfile;
 
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, UUID>, JpaSpecificationExecutor<UserProfile> {
 
+    // Идемпотентная звезда: вставка в user_profile_stars и сдвиг счётчика одним запросом.
+    // Пустой результат — нет целевого профиля или профиля пользователя
+    @Transactional
+    @Query(value = """
+            WITH ins AS (
+                INSERT INTO user_profile_stars (target_user_id, from_user_id)
+                SELECT t.id, :userId FROM user_profiles t
+                WHERE t.id = :id AND EXISTS (SELECT 1 FROM user_profiles WHERE id = :userId)
+                ON CONFLICT DO NOTHING
+                RETURNING target_user_id
+            )
+            UPDATE user_profiles SET star_count = star_count + (SELECT COUNT(*) FROM ins)
+            WHERE id = :id AND EXISTS (SELECT 1 FROM user_profiles WHERE id = :userId)
+            RETURNING star_count
+            """, nativeQuery = true)
+    Optional<Integer> star(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Transactional
+    @Query(value = """
+            WITH del AS (
+                DELETE FROM user_profile_stars
+                WHERE target_user_id = :id AND from_user_id = :userId
+                RETURNING target_user_id
+            )
+            UPDATE user_profiles SET star_count = star_count - (SELECT COUNT(*) FROM del)
+            WHERE id = :id
+            RETURNING star_count
+            """, nativeQuery = true)
+    Optional<Integer> unstar(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // Сначала блокируем строки с расхождением, а пересчитываем отдельным запросом: в READ COMMITTED
+    // его снимок берётся уже после блокировки, и звезда, закоммиченная в промежутке, не затрётся
+    @Query(value = """
+            SELECT t.id FROM user_profiles t
+            WHERE t.star_count <> (SELECT COUNT(*) FROM user_profile_stars s WHERE s.target_user_id = t.id)
+            ORDER BY t.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<UUID> lockDriftedStarCounts();
+
+    @Modifying
+    @Query(value = """
+            UPDATE user_profiles t
+            SET star_count = (SELECT COUNT(*) FROM user_profile_stars s WHERE s.target_user_id = t.id)
+            WHERE t.id IN (:ids)
+            """, nativeQuery = true)
+    int reconcileStarCounts(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = "SELECT target_user_id FROM user_profile_stars WHERE target_user_id IN (:ids) AND from_user_id = :userId", nativeQuery = true)
+    Set<UUID> findStarredIds(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
 }
@@ -0,0 +1,33 @@
+package com.example.demo.repositories.specifications;
+
+import java.util.Set;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+public class CollectionPredicates {
+
+    // exists (select 1 from <collection table> t where t.owner_id = root.id and t.term_id in (...)).
+    // termIds — уже подобранные по словарю id (TermDictionary.matching): null — без фильтра
+    public static <T> Predicate anyElementIn(
+            Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, String attribute, Set<Integer> termIds) {
+
+        if (termIds == null) {
+            return cb.conjunction();
+        }
+        if (termIds.isEmpty()) {
+            return cb.disjunction();
+        }
+
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Root<T> owner = subquery.correlate(root);
+        Join<T, Integer> element = owner.join(attribute);
+
+        subquery.select(cb.literal(1)).where(element.in(termIds));
+        return cb.exists(subquery);
+    }
+}
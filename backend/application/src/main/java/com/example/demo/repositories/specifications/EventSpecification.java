@@ -1,8 +1,11 @@
 package com.example.demo.repositories.specifications;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
 
 import org.springframework.data.jpa.domain.Specification;
 
@@ -13,7 +16,7 @@ import jakarta.persistence.criteria.Predicate;
 
 public class EventSpecification {
 
-    public static Specification<Event> search(EventSearchRequest request) {
+    public static Specification<Event> search(EventSearchRequest request, Set<Integer> tagIds) {
         return (root, query, cb) -> {
 
             Predicate predicate = cb.conjunction();
@@ -52,22 +55,45 @@ public class EventSpecification {
 
             if (request.eventTime() != null && !request.eventTime().isBlank()) {
                 Instant instant = Instant.parse(request.eventTime());
-                LocalDateTime eventTime = LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
-
-                LocalDateTime startOfDay = eventTime.toLocalDate().atStartOfDay();
-                LocalDateTime endOfDay = eventTime.toLocalDate().atTime(23, 59, 59);
+                LocalDate day = LocalDateTime.ofInstant(instant, ZoneOffset.UTC).toLocalDate();
 
                 predicate = cb.and(
+                        predicate,
+                        between(day.atStartOfDay(), day.plusDays(1).atStartOfDay()).toPredicate(root, query, cb)
+                );
+            }
+
+            predicate = cb.and(
                     predicate,
-                    cb.between(root.get("eventTime"), startOfDay, endOfDay)
+                    between(request.from(), request.to()).toPredicate(root, query, cb)
             );
-        }
 
-            query.distinct(true);
+            predicate = cb.and(
+                    predicate,
+                    CollectionPredicates.anyElementIn(root, query, cb, "tagIds", tagIds)
+            );
 
             return predicate;
         };
     }
+
+    public static Specification<Event> organizedBy(UUID organizerId) {
+        return (root, query, cb) -> cb.equal(root.get("organizer").get("id"), organizerId);
+    }
+
+    // Полуинтервал [from, to) по event_time; любая из границ может отсутствовать
+    public static Specification<Event> between(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            Predicate predicate = cb.conjunction();
+            if (from != null) {
+                predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.get("eventTime"), from));
+            }
+            if (to != null) {
+                predicate = cb.and(predicate, cb.lessThan(root.get("eventTime"), to));
+            }
+            return predicate;
+        };
+    }
     
     // public static Specification<Event> search(EventSearchRequest request) {
     //     return (root, query, cb) -> {
@@ -0,0 +1,27 @@
+package com.example.demo.repositories.specifications;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public class KeysetSpecification {
+
+    public static <T, K extends Comparable<? super K>> Specification<T> idAfter(K lastId) {
+        return (root, query, cb) -> lastId == null
+                ? cb.conjunction()
+                : cb.greaterThan(root.<K>get("id"), lastId);
+    }
+
+    // Позиция после (value, lastId) при сортировке по (attribute, id). Нестрогая граница по
+    // attribute отдельным условием, чтобы планировщик взял её в диапазон индекса (attribute, id)
+    public static <T, V extends Comparable<? super V>, K extends Comparable<? super K>> Specification<T> after(
+            String attribute, V value, K lastId) {
+        return (root, query, cb) -> value == null || lastId == null
+                ? cb.conjunction()
+                : cb.and(
+                        cb.greaterThanOrEqualTo(root.<V>get(attribute), value),
+                        cb.or(
+                                cb.greaterThan(root.<V>get(attribute), value),
+                                cb.greaterThan(root.<K>get("id"), lastId)
+                        )
+                );
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.demo.repositories.specifications;
 
+import java.util.Set;
+import java.util.UUID;
+
 import org.springframework.data.jpa.domain.Specification;
 
 import com.example.demo.dtos.project.ProjectSearchRequest;
@@ -9,7 +12,7 @@ import jakarta.persistence.criteria.Predicate;
 
 public class ProjectSpecification {
 
-    public static Specification<Project> search(ProjectSearchRequest request) {
+    public static Specification<Project> search(ProjectSearchRequest request, Set<Integer> tagIds) {
         return (root, query, cb) -> {
 
             Predicate predicate = cb.conjunction();
@@ -20,8 +23,14 @@ public class ProjectSpecification {
                         cb.like(cb.lower(root.get("name")), pattern));
             }
 
-            query.distinct(true);
+            predicate = cb.and(predicate,
+                    CollectionPredicates.anyElementIn(root, query, cb, "tagIds", tagIds));
+
             return predicate;
         };
     }
+
+    public static Specification<Project> organizedBy(UUID organizerId) {
+        return (root, query, cb) -> cb.equal(root.get("organizer").get("id"), organizerId);
+    }
 }
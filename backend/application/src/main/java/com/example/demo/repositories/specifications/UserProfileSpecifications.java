@@ -1,32 +1,38 @@
 package com.example.demo.repositories.specifications;
 
+import java.util.Set;
+
 import org.springframework.data.jpa.domain.Specification;
 
+import com.example.demo.dtos.UserProfile.UserProfileSearchRequest;
 import com.example.demo.entities.UserProfile;
-import com.example.demo.entities.UserStatus;
 
 import jakarta.persistence.criteria.Predicate;
 
 public class UserProfileSpecifications {
 
-    public static Specification<UserProfile> searchByNameAndStatus(String text, UserStatus status) {
+    public static Specification<UserProfile> search(UserProfileSearchRequest request,
+                                                    Set<Integer> skillIds, Set<Integer> interestIds) {
         return (root, query, cb) -> {
             Predicate predicate = cb.conjunction();
 
-            if (status != null) {
-                predicate = cb.and(predicate, cb.equal(root.get("status"), status));
+            if (request.status() != null) {
+                predicate = cb.and(predicate, cb.equal(root.get("status"), request.status()));
             }
             
-            if (text != null && !text.isBlank()) {
-                String pattern = "%" + text.toLowerCase() + "%";
+            if (request.text() != null && !request.text().isBlank()) {
+                String pattern = "%" + request.text().toLowerCase() + "%";
                 predicate = cb.and(predicate, cb.or(
                         cb.like(cb.lower(root.get("firstName")), pattern),
                         cb.like(cb.lower(root.get("lastName")), pattern)
                 ));
             }
 
-            query.distinct(true);
+            predicate = cb.and(predicate,
+                    CollectionPredicates.anyElementIn(root, query, cb, "skillIds", skillIds),
+                    CollectionPredicates.anyElementIn(root, query, cb, "interestIds", interestIds));
+
             return predicate;
         };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.example.demo.services;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.repositories.EventRepository;
+import com.example.demo.repositories.ProjectRepository;
+import com.example.demo.repositories.UserProfileRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Сверяет денормализованные счётчики с join-таблицами: чинит расхождения после
+// удалений пользователей, ручных правок в БД и т.п.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CounterReconciliationService {
+
+    private final EventRepository eventRepository;
+    private final ProjectRepository projectRepository;
+    private final UserProfileRepository userProfileRepository;
+
+    @Scheduled(
+            fixedDelayString = "${counters.reconciliation-interval:PT1H}",
+            initialDelayString = "${counters.reconciliation-initial-delay:PT1M}"
+    )
+    @Transactional
+    public void reconcile() {
+        int repaired = repair(eventRepository.lockDriftedLikeCounts(), eventRepository::reconcileLikeCounts)
+                + repair(eventRepository.lockDriftedParticipantCounts(), eventRepository::reconcileParticipantCounts)
+                + repair(projectRepository.lockDriftedLikeCounts(), projectRepository::reconcileLikeCounts)
+                + repair(projectRepository.lockDriftedParticipantCounts(), projectRepository::reconcileParticipantCounts)
+                + repair(userProfileRepository.lockDriftedStarCounts(), userProfileRepository::reconcileStarCounts);
+
+        if (repaired > 0) {
+            log.warn("Counter reconciliation repaired {} rows", repaired);
+        } else {
+            log.debug("Counter reconciliation found no drift");
+        }
+    }
+
+    // Строки уже заблокированы, пересчёт видит все лайки, закоммиченные до блокировки
+    private static <T> int repair(List<T> drifted, ToIntFunction<List<T>> reconcile) {
+        return drifted.isEmpty() ? 0 : reconcile.applyAsInt(drifted);
+    }
+}
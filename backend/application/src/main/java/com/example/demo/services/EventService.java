@@ -1,26 +1,72 @@
 package com.example.demo.services;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.example.demo.dtos.UserProfile.UserProfileResponse;
+import com.example.demo.dtos.card.EventCard;
+import com.example.demo.dtos.card.UserProfileCard;
+import com.example.demo.dtos.card.ViewerOverlay;
+import com.example.demo.dtos.event.CalendarDay;
 import com.example.demo.dtos.event.EventRequestDto;
 import com.example.demo.dtos.event.EventResponse;
 import com.example.demo.dtos.event.EventSearchRequest;
+import com.example.demo.dtos.event.NearbyEvent;
+import com.example.demo.dtos.event.NearbyEventsRequest;
 import com.example.demo.dtos.event.ParticipantFilterRequest;
+import com.example.demo.dtos.page.CursorPage;
+import com.example.demo.dtos.reaction.LikeResponse;
+import com.example.demo.dtos.reaction.ParticipantsRequest;
+import com.example.demo.dtos.reaction.ParticipantsResponse;
+import com.example.demo.dtos.search.FacetedSearchResponse;
+import com.example.demo.dtos.search.SearchHit;
 import com.example.demo.entities.Event;
 import com.example.demo.entities.UserProfile;
+import com.example.demo.exception.exceptions.AccessDeniedException;
+import com.example.demo.exception.exceptions.BadRequestException;
 import com.example.demo.exception.exceptions.ResourceNotFoundException;
 import com.example.demo.repositories.EventRepository;
 import com.example.demo.repositories.UserProfileRepository;
 import com.example.demo.repositories.specifications.EventSpecification;
+import com.example.demo.repositories.specifications.KeysetSpecification;
 import com.example.demo.security.IUserProfile;
+import com.example.demo.services.cache.DetailCache;
+import com.example.demo.services.cache.UserProfileCards;
+import com.example.demo.services.export.NdjsonExport;
+import com.example.demo.services.geo.Geohash;
+import com.example.demo.services.geo.NearbyEvents;
+import com.example.demo.services.likes.LikeBuffer;
+import com.example.demo.services.likes.LikeTarget;
+import com.example.demo.services.pagination.CursorPagination;
+import com.example.demo.services.pagination.IdPage;
+import com.example.demo.services.recommendation.InteractionChanged;
+import com.example.demo.services.recommendation.InteractionsChanged;
+import com.example.demo.services.recommendation.ItemChanged;
+import com.example.demo.services.recommendation.ItemsChanged;
+import com.example.demo.services.recommendation.RecommendationLists;
+import com.example.demo.services.recommendation.SimilarItems;
+import com.example.demo.services.search.FullTextSearch;
+import com.example.demo.services.search.LuceneSearch;
+import com.example.demo.services.terms.TermDictionary;
+import com.example.demo.services.viewer.ViewerOverlays;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,8 +74,27 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class EventService {
 
+    private static final Sort UPCOMING_SORT = Sort.by(Sort.Direction.ASC, "eventTime", CursorPagination.SORT_KEY);
+
     private final EventRepository eventRepository;
     private final UserProfileRepository userProfileRepository;
+    private final CursorPagination cursorPagination;
+    private final IdPage idPage;
+    private final LikeBuffer likeBuffer;
+    private final DetailCache detailCache;
+    private final UserProfileCards userProfileCards;
+    private final ViewerOverlays viewerOverlays;
+    private final TermDictionary termDictionary;
+    private final FullTextSearch fullTextSearch;
+    private final LuceneSearch luceneSearch;
+    private final NearbyEvents nearbyEvents;
+    private final NdjsonExport ndjsonExport;
+    private final RecommendationLists recommendationLists;
+    private final SimilarItems similarItems;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${batch.max-size:500}")
+    private int maxBatchSize;
 
     public EventResponse create(EventRequestDto request) {
         UUID userId = getCurrentUserId();
@@ -37,87 +102,112 @@ public class EventService {
         UserProfile organizer = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
+        Event saved = eventRepository.save(newEvent(request, organizer));
+        eventPublisher.publishEvent(new ItemChanged(ItemChanged.Kind.EVENT, saved.getId()));
+        return toDto(saved);
+    }
+
+    // Пачка событий одной транзакцией: id берутся из пула последовательности, строки и теги
+    // уходят JDBC-пакетами при flush
+    @Transactional
+    public List<EventResponse> createAll(List<EventRequestDto> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new BadRequestException("Batch must contain from 1 to " + maxBatchSize + " events");
+        }
+        UUID userId = getCurrentUserId();
+
+        UserProfile organizer = userProfileRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+
+        // Недостающие термины всей пачки создаются одной вставкой, дальше idsOf отвечает из кэша
+        termDictionary.idsOf(requests.stream()
+                .filter(Objects::nonNull)
+                .flatMap(request -> request.getTags() == null ? Stream.empty() : request.getTags().stream())
+                .toList());
+
+        List<Event> saved = eventRepository.saveAll(requests.stream()
+                .filter(Objects::nonNull)
+                .map(request -> newEvent(request, organizer))
+                .toList());
+        eventPublisher.publishEvent(new ItemsChanged(ItemChanged.Kind.EVENT, saved.stream().map(Event::getId).toList()));
+
+        Map<UUID, UserProfileCard> profiles = Map.of(organizer.getId(), UserProfileCard.from(organizer, termDictionary));
+        return toDtos(saved.stream().map(event -> EventCard.from(event, termDictionary)).toList(), profiles, p -> true);
+    }
+
+    private Event newEvent(EventRequestDto request, UserProfile organizer) {
         Event event = new Event();
         event.setName(request.getName());
         event.setDescription(request.getDescription());
         event.setEventTime(request.getEventTime());
         event.setPlace(request.getPlace());
-        event.setTags(request.getTags() != null ? request.getTags() : new HashSet<>());
+        setLocation(event, request.getLatitude(), request.getLongitude());
+        event.setTagIds(termDictionary.idsOf(request.getTags()));
         event.setOrganizer(organizer);
-
-        Event saved = eventRepository.save(event);
-        return toDto(saved);
+        return event;
     }
 
-    public List<EventResponse> findAll() {
-        return eventRepository.findAll().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-    }
+    public CursorPage<EventResponse> findAll(String cursor, Integer limit) {
+        Specification<Event> spec = KeysetSpecification.idAfter(cursorPagination.decodeLong(cursor));
 
-    public List<EventResponse> getRecommendations() {
+        CursorPage<Long> page = fetchPage(spec, cursorPagination.resolveLimit(limit));
+        return page.withItems(toDtosByIds(page.items()));
+    }
 
-        IUserProfile principal = (IUserProfile) SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getPrincipal();
+    public List<EventResponse> getRecommendations(Integer limit) {
+        return toDtosByIds(recommendationLists.events(getCurrentUserId(), cursorPagination.resolveLimit(limit)));
+    }
 
-        UUID userId = UUID.fromString(principal.getUserId());
+    // «Кто лайкал или участвовал в этом событии, также…»
+    public List<EventResponse> getSimilar(Long id, Integer limit) {
+        if (findCards(List.of(id)).isEmpty()) {
+            throw new ResourceNotFoundException("Event not found with id: " + id);
+        }
 
-        UserProfile currentUser = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return toDtosByIds(similarItems.similarTo(ItemChanged.Kind.EVENT, id, cursorPagination.resolveLimit(limit)));
+    }
 
-        Set<String> userInterests = currentUser.getInterests();
+    public EventResponse getById(Long id, ParticipantFilterRequest filter) {
 
-        if (userInterests == null || userInterests.isEmpty()) {
-            return List.of(); 
+        EventCard event = findCards(List.of(id)).get(id);
+        if (event == null) {
+            throw new ResourceNotFoundException("Event not found with id: " + id);
         }
 
-        EventSearchRequest request = new EventSearchRequest(
-                null,        
-                null,        
-                null,       
-                userInterests,
-                false
-        );
-
-        List<EventResponse> events = search(request);
-
-        return events;
+        return toDtos(List.of(event), participantFilter(filter)).get(0);
     }
 
-    public EventResponse getById(Long id, ParticipantFilterRequest filter) {
+    // Координаты задаются парой; geohash пересчитывается вместе с ними
+    private static void setLocation(Event event, Double latitude, Double longitude) {
+        if ((latitude == null) != (longitude == null)) {
+            throw new BadRequestException("latitude and longitude must be given together");
+        }
+        if (latitude != null) {
+            NearbyEvents.requireCoordinates(latitude, longitude);
+        }
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        event.setGeohash(latitude == null ? null : Geohash.encode(latitude, longitude));
+    }
 
-        Event event = eventRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
+    // Фрагменты фильтра один раз сопоставляются со словарём, дальше — сравнение id
+    private Predicate<UserProfileCard> participantFilter(ParticipantFilterRequest filter) {
+        Predicate<UserProfileCard> predicate = p -> true;
+        if (filter == null) {
+            return predicate;
+        }
 
-        Set<UserProfile> participants = new HashSet<>(event.getParticipants());
-
-        if (filter != null && filter.skills() != null && !filter.skills().isEmpty()) {
-            participants = participants.stream()
-                    .filter(p -> p.getSkills().stream()
-                            .anyMatch(skill -> filter.skills().stream()
-                                    .anyMatch(requestSkill -> 
-                                            skill.toLowerCase().contains(requestSkill.toLowerCase())
-                                    )
-                            )
-                    )
-                    .collect(Collectors.toSet());
+        Set<Integer> skillIds = termDictionary.matching(filter.skills());
+        if (skillIds != null) {
+            predicate = predicate.and(p -> p.skillIds().stream().anyMatch(skillIds::contains));
         }
 
-        if (filter != null && filter.interests() != null && !filter.interests().isEmpty()) {
-            participants = participants.stream()
-                    .filter(p -> p.getInterests().stream()
-                            .anyMatch(interest -> filter.interests().stream()
-                                    .anyMatch(reqInterest ->
-                                            interest.toLowerCase().contains(reqInterest.toLowerCase())
-                                    )
-                            )
-                    )
-                    .collect(Collectors.toSet());
+        Set<Integer> interestIds = termDictionary.matching(filter.interests());
+        if (interestIds != null) {
+            predicate = predicate.and(p -> p.interestIds().stream().anyMatch(interestIds::contains));
         }
 
-        return toDto(event, participants);
+        return predicate;
     }
 
     public EventResponse update(Long id, EventRequestDto request) {
@@ -128,9 +218,12 @@ public class EventService {
         event.setDescription(request.getDescription());
         event.setEventTime(request.getEventTime());
         event.setPlace(request.getPlace());
-        event.setTags(request.getTags());
+        setLocation(event, request.getLatitude(), request.getLongitude());
+        event.setTagIds(termDictionary.idsOf(request.getTags()));
 
         Event updated = eventRepository.save(event);
+        detailCache.invalidate(DetailCache.EVENT, id);
+        eventPublisher.publishEvent(new ItemChanged(ItemChanged.Kind.EVENT, id));
         return toDto(updated);
     }
 
@@ -139,8 +232,49 @@ public class EventService {
             throw new ResourceNotFoundException("Event not found with id: " + id);
         }
         eventRepository.deleteById(id);
+        detailCache.invalidate(DetailCache.EVENT, id);
+        eventPublisher.publishEvent(new ItemChanged(ItemChanged.Kind.EVENT, id));
     }
 
+    // Организатор добавляет или убирает участников пачкой: одна вставка/удаление на множестве id
+    // и сдвиг счётчика, без загрузки события и коллекции участников
+    @Transactional
+    public ParticipantsResponse addParticipants(Long id, ParticipantsRequest request) {
+        Set<UUID> userIds = participantIds(id, request);
+        return changeParticipants(id, eventRepository.insertParticipants(id, userIds), true);
+    }
+
+    @Transactional
+    public ParticipantsResponse removeParticipants(Long id, ParticipantsRequest request) {
+        Set<UUID> userIds = participantIds(id, request);
+        return changeParticipants(id, eventRepository.deleteParticipants(id, userIds), false);
+    }
+
+    private Set<UUID> participantIds(Long id, ParticipantsRequest request) {
+        UUID organizerId = eventRepository.findOrganizerId(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
+        if (!organizerId.equals(getCurrentUserId())) {
+            throw new AccessDeniedException("Управлять участниками может только организатор события");
+        }
+
+        if (request.participantIds().size() > maxBatchSize) {
+            throw new BadRequestException("participantIds must contain at most " + maxBatchSize + " ids");
+        }
+        return request.participantIds();
+    }
+
+    private ParticipantsResponse changeParticipants(Long id, List<UUID> changed, boolean added) {
+        Integer participantCount = eventRepository.shiftParticipantCount(id, added ? changed.size() : -changed.size())
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
+
+        if (!changed.isEmpty()) {
+            detailCache.invalidate(DetailCache.EVENT, id);
+            eventPublisher.publishEvent(new InteractionsChanged(ItemChanged.Kind.EVENT, id, changed, added));
+        }
+        return new ParticipantsResponse(id, participantCount, changed.size());
+    }
+
+    @Transactional
     public EventResponse addParticipant(Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
@@ -150,10 +284,16 @@ public class EventService {
         UserProfile participant = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        event.getParticipants().add(participant);
+        if (event.getParticipants().add(participant)) {
+            eventRepository.adjustParticipantCount(eventId, 1);
+            event.setParticipantCount(event.getParticipantCount() + 1);
+            detailCache.invalidate(DetailCache.EVENT, eventId);
+            eventPublisher.publishEvent(new InteractionChanged(ItemChanged.Kind.EVENT, eventId, userId, true));
+        }
         return toDto(eventRepository.save(event));
     }
 
+    @Transactional
     public EventResponse removeParticipant(Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
@@ -163,68 +303,142 @@ public class EventService {
         UserProfile participant = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        event.getParticipants().remove(participant);
+        if (event.getParticipants().remove(participant)) {
+            eventRepository.adjustParticipantCount(eventId, -1);
+            event.setParticipantCount(event.getParticipantCount() - 1);
+            detailCache.invalidate(DetailCache.EVENT, eventId);
+            eventPublisher.publishEvent(new InteractionChanged(ItemChanged.Kind.EVENT, eventId, userId, false));
+        }
         return toDto(eventRepository.save(event));
     }
 
-    public List<EventResponse> search(EventSearchRequest request) {
-        List<Event> events = eventRepository.findAll(EventSpecification.search(request));
-
-        if (request.tags() != null && !request.tags().isEmpty()) {
-            events = events.stream()
-                    .filter(event -> request.tags().stream()
-                            .anyMatch(tag -> event.getTags().stream()
-                                    .anyMatch(eventTag ->
-                                            eventTag.toLowerCase().contains(tag.toLowerCase())
-                                    )
-                            )
-                    )
-                    .collect(Collectors.toList());
-        }
+    public CursorPage<EventResponse> search(EventSearchRequest request, String cursor, Integer limit) {
+        Specification<Event> spec = EventSpecification.search(request, termDictionary.matching(request.tags()))
+                .and(KeysetSpecification.idAfter(cursorPagination.decodeLong(cursor)));
 
         if (Boolean.TRUE.equals(request.onlyMyEvents())) {
+            spec = spec.and(EventSpecification.organizedBy(getCurrentUserId()));
+        }
+
+        CursorPage<Long> page = fetchPage(spec, cursorPagination.resolveLimit(limit));
+        return page.withItems(toDtosByIds(page.items()));
+    }
+
+    // Страница выбирает только id; содержимое берётся из кэша карточек
+    private CursorPage<Long> fetchPage(Specification<Event> spec, int limit) {
+        List<Long> ids = idPage.find(Event.class, Long.class, spec, limit + 1);
 
-        UUID currentUserId = getCurrentUserId();
+        return cursorPagination.slice(ids, limit, id -> id);
+    }
+
+    // Ближайшие события по (event_time, id): без to — всё начиная с from (по умолчанию с текущего момента)
+    public CursorPage<EventResponse> upcoming(LocalDateTime from, LocalDateTime to, Boolean onlyMyEvents,
+                                              String cursor, Integer limit) {
+        CursorPagination.TimeKey after = cursorPagination.decodeTime(cursor);
+        Specification<Event> spec = EventSpecification.between(from != null ? from : LocalDateTime.now(), to);
+
+        if (after != null) {
+            spec = spec.and(KeysetSpecification.after("eventTime", after.time(), after.id()));
+        }
 
-        events = events.stream()
-                .filter(event -> event.getOrganizer() != null &&
-                        event.getOrganizer().getId().equals(currentUserId))
-                .collect(Collectors.toList());
+        if (Boolean.TRUE.equals(onlyMyEvents)) {
+            spec = spec.and(EventSpecification.organizedBy(getCurrentUserId()));
         }
 
-        return events.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        int pageSize = cursorPagination.resolveLimit(limit);
+        List<Event> rows = eventRepository.findBy(spec, query -> query
+                .sortBy(UPCOMING_SORT)
+                .limit(pageSize + 1)
+                .all());
+
+        CursorPage<Event> page = cursorPagination.slice(rows, pageSize,
+                event -> new CursorPagination.TimeKey(event.getEventTime(), event.getId()));
+        return page.withItems(toDtosByIds(page.items().stream().map(Event::getId).toList()));
     }
 
-        public EventResponse likeEvent(Long eventId) {
+    // Дни месяца, в которые есть события; дни без событий не возвращаются
+    public List<CalendarDay> calendar(YearMonth month, Boolean onlyMyEvents) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
 
-                Event event = eventRepository.findById(eventId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Event not found: " + eventId));
+        List<EventRepository.DayCount> counts = Boolean.TRUE.equals(onlyMyEvents)
+                ? eventRepository.countByDay(getCurrentUserId(), start, end)
+                : eventRepository.countByDay(start, end);
 
-                UUID userId = getCurrentUserId();
+        return counts.stream()
+                .map(count -> new CalendarDay(month.atDay(count.getDayOfMonth()), count.getTotal()))
+                .toList();
+    }
 
-                UserProfile user = userProfileRepository.findById(userId)
-                        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+    // Без курсора: выдача упорядочена по расстоянию и ограничена limit
+    public List<NearbyEvent> nearby(NearbyEventsRequest request, Integer limit) {
+        List<NearbyEvents.Match> matches = nearbyEvents.find(request, cursorPagination.resolveLimit(limit));
+        Map<Long, EventResponse> responses = toDtosByIds(matches.stream().map(NearbyEvents.Match::id).toList()).stream()
+                .collect(Collectors.toMap(EventResponse::id, response -> response));
+        return matches.stream()
+                .filter(match -> responses.containsKey(match.id()))
+                .map(match -> new NearbyEvent(responses.get(match.id()), match.distanceKm()))
+                .toList();
+    }
 
-                event.getLikes().add(user);
+    // Ранжированный полнотекстовый поиск; курсор следующей страницы — по (rank, id)
+    public CursorPage<SearchHit<EventResponse>> fullTextSearch(String query, String cursor, Integer limit) {
+        int pageSize = cursorPagination.resolveLimit(limit);
+        List<FullTextSearch.Match<Long>> matches = fullTextSearch.events(query, cursorPagination.decodeRanked(cursor), pageSize + 1);
+        return toHits(cursorPagination.slice(matches, pageSize, FullTextSearch.Match::key));
+    }
 
-                return toDto(eventRepository.save(event));
-        }
+    // Все события в NDJSON. Карточки читаются из БД мимо кэша, чтобы выгрузка не вытесняла горячие записи
+    public void export(OutputStream out) {
+        ndjsonExport.write(out, "SELECT id FROM events ORDER BY id", (rs, rowNum) -> rs.getLong(1),
+                ids -> toDtos(eventRepository.findAllDetailedByIdIn(ids).stream()
+                        .sorted(Comparator.comparing(Event::getId))
+                        .map(event -> EventCard.from(event, termDictionary))
+                        .toList(), p -> true));
+    }
 
-        public EventResponse unlikeEvent(Long eventId) {
+    public FacetedSearchResponse<EventResponse> indexSearch(String query, Set<String> tags, String cursor, Integer limit) {
+        int pageSize = cursorPagination.resolveLimit(limit);
+        LuceneSearch.Result<Long> result = luceneSearch.events(query, tags, cursorPagination.decodeRanked(cursor), pageSize + 1);
+        CursorPage<SearchHit<EventResponse>> page = toHits(cursorPagination.slice(result.matches(), pageSize, FullTextSearch.Match::key));
+        return new FacetedSearchResponse<>(page.items(), result.facets(), page.nextCursor());
+    }
 
-                Event event = eventRepository.findById(eventId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Event not found: " + eventId));
+    private CursorPage<SearchHit<EventResponse>> toHits(CursorPage<FullTextSearch.Match<Long>> page) {
+        Map<Long, EventResponse> responses = toDtosByIds(page.items().stream().map(FullTextSearch.Match::id).toList()).stream()
+                .collect(Collectors.toMap(EventResponse::id, response -> response));
+        return page.withItems(page.items().stream()
+                .filter(match -> responses.containsKey(match.id()))
+                .map(match -> new SearchHit<>(responses.get(match.id()), match.rank(), match.snippet()))
+                .toList());
+    }
+
+        public LikeResponse likeEvent(Long eventId) {
+                return setLiked(eventId, true);
+        }
 
+        public LikeResponse unlikeEvent(Long eventId) {
+                return setLiked(eventId, false);
+        }
+
+        private LikeResponse setLiked(Long eventId, boolean liked) {
                 UUID userId = getCurrentUserId();
 
-                UserProfile user = userProfileRepository.findById(userId)
-                        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+                if (!likeBuffer.isEnabled()) {
+                        Integer likeCount = (liked ? eventRepository.like(eventId, userId) : eventRepository.unlike(eventId, userId))
+                                .orElseThrow(() -> new ResourceNotFoundException("Event not found: " + eventId));
+                        detailCache.invalidate(DetailCache.EVENT, eventId);
+                        eventPublisher.publishEvent(new InteractionChanged(ItemChanged.Kind.EVENT, eventId, userId, liked));
+                        return new LikeResponse(eventId, likeCount, liked);
+                }
 
-                event.getLikes().remove(user);
+                // Write-behind: в БД только чтения, запись уйдёт пачкой из LikeFlushService
+                Integer persistedCount = eventRepository.findLikeCount(eventId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Event not found: " + eventId));
+                long pendingDelta = likeBuffer.setLiked(LikeTarget.EVENT, eventId, userId, liked,
+                        () -> eventRepository.isLikedBy(eventId, userId));
 
-                return toDto(eventRepository.save(event));
+                return new LikeResponse(eventId, (int) (persistedCount + pendingDelta), liked);
         }
 
         private UUID getCurrentUserId() {
@@ -233,47 +447,42 @@ public class EventService {
                 return UUID.fromString(principal.getUserId());
         }
 
+        // Ответ на запись собирается из сущности: карточка в кэше будет сброшена только после коммита
         private EventResponse toDto(Event event) {
-                UUID currentUserId = getCurrentUserId();
-
-                boolean liked = event.getLikes().stream()
-                        .anyMatch(u -> u.getId().equals(currentUserId));
-
-                return new EventResponse(
-                        event.getId(),
-                        UserProfileResponse.from(event.getOrganizer(), currentUserId),
-                        event.getName(),
-                        event.getDescription(),
-                        event.getEventTime(),
-                        event.getPlace(),
-                        event.getTags(),
-                        event.getParticipants().stream()
-                                .map(p -> UserProfileResponse.from(p, currentUserId))
-                                .collect(Collectors.toSet()),
-                        event.getLikes().size(),
-                        liked
-                );
+                Map<UUID, UserProfileCard> profiles = Stream.concat(Stream.of(event.getOrganizer()), event.getParticipants().stream())
+                        .collect(Collectors.toMap(UserProfile::getId, profile -> UserProfileCard.from(profile, termDictionary), (first, second) -> first));
+
+                return toDtos(List.of(EventCard.from(event, termDictionary)), profiles, p -> true).get(0);
+        }
+
+        private List<EventResponse> toDtosByIds(List<Long> ids) {
+                Map<Long, EventCard> cards = findCards(ids);
+
+                return toDtos(ids.stream().map(cards::get).filter(Objects::nonNull).toList(), p -> true);
+        }
+
+        private List<EventResponse> toDtos(List<EventCard> events, Predicate<UserProfileCard> participantFilter) {
+                Set<UUID> profileIds = new HashSet<>();
+                for (EventCard event : events) {
+                        profileIds.add(event.organizerId());
+                        profileIds.addAll(event.participantIds());
                 }
 
-        private EventResponse toDto(Event event, Set<UserProfile> filteredParticipants) {
-                UUID currentUserId = getCurrentUserId();
-
-                boolean liked = event.getLikes().stream()
-                        .anyMatch(u -> u.getId().equals(currentUserId));
-
-                return new EventResponse(
-                        event.getId(),
-                        UserProfileResponse.from(event.getOrganizer(), currentUserId),
-                        event.getName(),
-                        event.getDescription(),
-                        event.getEventTime(),
-                        event.getPlace(),
-                        event.getTags(),
-                        filteredParticipants.stream()
-                                .map(p -> UserProfileResponse.from(p, currentUserId))
-                                .collect(Collectors.toSet()),
-                        event.getLikes().size(),
-                        liked
-                );
+                return toDtos(events, userProfileCards.get(profileIds), participantFilter);
+        }
+
+        private List<EventResponse> toDtos(List<EventCard> events, Map<UUID, UserProfileCard> profiles,
+                                           Predicate<UserProfileCard> participantFilter) {
+                ViewerOverlay viewer = viewerOverlays.forEvents(events.stream().map(EventCard::id).toList(), profiles.keySet());
+
+                return events.stream()
+                        .map(event -> EventResponse.from(event, profiles, participantFilter, viewer))
+                        .toList();
+        }
+
+        private Map<Long, EventCard> findCards(List<Long> ids) {
+                return detailCache.getAll(DetailCache.EVENT, ids, EventCard.class,
+                        missing -> eventRepository.findAllDetailedByIdIn(missing).stream()
+                                .collect(Collectors.toMap(Event::getId, event -> EventCard.from(event, termDictionary))));
         }
-}
\ No newline at end of file
+}
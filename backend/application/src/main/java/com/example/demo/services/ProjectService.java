@@ -1,29 +1,70 @@
 package com.example.demo.services;
 
+import java.io.OutputStream;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.dtos.UserProfile.UserProfileResponse;
+import com.example.demo.dtos.card.ProjectCard;
+import com.example.demo.dtos.card.UserProfileCard;
+import com.example.demo.dtos.card.ViewerOverlay;
+import com.example.demo.dtos.page.CursorPage;
 import com.example.demo.dtos.project.ParticipantFilterRequest;
 import com.example.demo.dtos.project.ProjectRequestDto;
 import com.example.demo.dtos.project.ProjectResponse;
 import com.example.demo.dtos.project.ProjectSearchRequest;
+import com.example.demo.dtos.project.TeamSuggestionResponse;
+import com.example.demo.dtos.reaction.LikeResponse;
+import com.example.demo.dtos.reaction.ParticipantsRequest;
+import com.example.demo.dtos.reaction.ParticipantsResponse;
+import com.example.demo.dtos.search.FacetedSearchResponse;
+import com.example.demo.dtos.search.SearchHit;
 import com.example.demo.entities.Project;
 import com.example.demo.entities.ProjectStatus;
 import com.example.demo.entities.UserProfile;
 import com.example.demo.exception.exceptions.AccessDeniedException;
+import com.example.demo.exception.exceptions.BadRequestException;
 import com.example.demo.exception.exceptions.ResourceNotFoundException;
 import com.example.demo.repositories.ProjectRepository;
 import com.example.demo.repositories.UserProfileRepository;
+import com.example.demo.repositories.specifications.KeysetSpecification;
 import com.example.demo.repositories.specifications.ProjectSpecification;
 import com.example.demo.security.IUserProfile;
+import com.example.demo.services.cache.DetailCache;
+import com.example.demo.services.cache.UserProfileCards;
+import com.example.demo.services.export.NdjsonExport;
+import com.example.demo.services.likes.LikeBuffer;
+import com.example.demo.services.likes.LikeTarget;
+import com.example.demo.services.pagination.CursorPagination;
+import com.example.demo.services.pagination.IdPage;
+import com.example.demo.services.recommendation.InteractionChanged;
+import com.example.demo.services.recommendation.InteractionsChanged;
+import com.example.demo.services.recommendation.ItemChanged;
+import com.example.demo.services.recommendation.ItemsChanged;
+import com.example.demo.services.recommendation.RecommendationLists;
+import com.example.demo.services.recommendation.SimilarItems;
+import com.example.demo.services.recommendation.TeamSuggestion;
+import com.example.demo.services.recommendation.TeamSuggestions;
+import com.example.demo.services.search.FullTextSearch;
+import com.example.demo.services.search.LuceneSearch;
+import com.example.demo.services.terms.TermDictionary;
+import com.example.demo.services.viewer.ViewerOverlays;
 
 import lombok.RequiredArgsConstructor;
 
@@ -33,6 +74,23 @@ public class ProjectService {
 
     private final ProjectRepository projectRepository;
     private final UserProfileRepository userProfileRepository;
+    private final CursorPagination cursorPagination;
+    private final IdPage idPage;
+    private final LikeBuffer likeBuffer;
+    private final DetailCache detailCache;
+    private final UserProfileCards userProfileCards;
+    private final ViewerOverlays viewerOverlays;
+    private final TermDictionary termDictionary;
+    private final FullTextSearch fullTextSearch;
+    private final LuceneSearch luceneSearch;
+    private final NdjsonExport ndjsonExport;
+    private final RecommendationLists recommendationLists;
+    private final SimilarItems similarItems;
+    private final TeamSuggestions teamSuggestions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${batch.max-size:500}")
+    private int maxBatchSize;
 
     private UUID getCurrentUserId() {
         IUserProfile principal =
@@ -46,77 +104,128 @@ public class ProjectService {
         UserProfile organizer = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
+        Project saved = projectRepository.save(newProject(request, organizer));
+        eventPublisher.publishEvent(new ItemChanged(ItemChanged.Kind.PROJECT, saved.getId()));
+        return toDto(saved);
+    }
+
+    // Пачка проектов одной транзакцией: id берутся из пула последовательности, строки и теги
+    // уходят JDBC-пакетами при flush
+    @Transactional
+    public List<ProjectResponse> createAll(List<ProjectRequestDto> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new BadRequestException("Batch must contain from 1 to " + maxBatchSize + " projects");
+        }
+        UUID userId = getCurrentUserId();
+
+        UserProfile organizer = userProfileRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+
+        // Недостающие термины всей пачки создаются одной вставкой, дальше idsOf отвечает из кэша
+        termDictionary.idsOf(requests.stream()
+                .filter(Objects::nonNull)
+                .flatMap(request -> request.getTags() == null ? Stream.empty() : request.getTags().stream())
+                .toList());
+
+        List<Project> saved = projectRepository.saveAll(requests.stream()
+                .filter(Objects::nonNull)
+                .map(request -> newProject(request, organizer))
+                .toList());
+        eventPublisher.publishEvent(new ItemsChanged(ItemChanged.Kind.PROJECT, saved.stream().map(Project::getId).toList()));
+
+        Map<UUID, UserProfileCard> profiles = Map.of(organizer.getId(), UserProfileCard.from(organizer, termDictionary));
+        return toDtos(saved.stream().map(project -> ProjectCard.from(project, termDictionary)).toList(), profiles, p -> true);
+    }
+
+    private Project newProject(ProjectRequestDto request, UserProfile organizer) {
         Project project = new Project();
         project.setName(request.getName());
         project.setDescription(request.getDescription());
-        project.setTags(request.getTags() != null ? request.getTags() : new HashSet<>());
+        project.setTagIds(termDictionary.idsOf(request.getTags()));
         project.setOrganizer(organizer);
         project.setInvitationCode(generateFormattedCode());
         project.setStatus(request.getStatus());
-
-        return toDto(projectRepository.save(project));
-    }
-
-    public List<ProjectResponse> findAll() {
-        return projectRepository.findAll().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return project;
     }
 
-    public List<ProjectResponse> getRecommendations() {
+    public CursorPage<ProjectResponse> findAll(String cursor, Integer limit) {
+        Specification<Project> spec = KeysetSpecification.idAfter(cursorPagination.decodeLong(cursor));
 
-        IUserProfile principal = (IUserProfile) SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getPrincipal();
+        CursorPage<Long> page = fetchPage(spec, cursorPagination.resolveLimit(limit));
+        return page.withItems(toDtosByIds(page.items()));
+    }
 
-        UUID userId = UUID.fromString(principal.getUserId());
+    public List<ProjectResponse> getRecommendations(Integer limit) {
+        return toDtosByIds(recommendationLists.projects(getCurrentUserId(), cursorPagination.resolveLimit(limit)));
+    }
 
-        UserProfile currentUser = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    // «Кто лайкал или участвовал в этом проекте, также…»
+    public List<ProjectResponse> getSimilar(Long id, Integer limit) {
+        if (findCards(List.of(id)).isEmpty()) {
+            throw new ResourceNotFoundException("Project not found: " + id);
+        }
 
-        Set<String> userInterests = currentUser.getInterests();
+        return toDtosByIds(similarItems.similarTo(ItemChanged.Kind.PROJECT, id, cursorPagination.resolveLimit(limit)));
+    }
 
-        if (userInterests == null || userInterests.isEmpty()) {
-            return List.of();
+    // Участники, которые вместе с текущей командой закрывают нужные навыки (по умолчанию — теги проекта)
+    public TeamSuggestionResponse suggestTeam(Long id, Set<String> skills, Integer limit) {
+        ProjectCard project = findCards(List.of(id)).get(id);
+        if (project == null) {
+            throw new ResourceNotFoundException("Project not found: " + id);
+        }
+        if (!project.organizerId().equals(getCurrentUserId())) {
+            throw new AccessDeniedException("Подбирать команду может только организатор проекта");
         }
 
-        ProjectSearchRequest request = new ProjectSearchRequest(
-                null,
-                userInterests,
-                false
-        );
-
-        return search(request);
+        Set<UUID> teamIds = new HashSet<>(project.participantIds());
+        teamIds.add(project.organizerId());
+        List<String> teamSkills = userProfileCards.get(teamIds).values().stream()
+                .flatMap(profile -> profile.skills().stream())
+                .toList();
+
+        TeamSuggestion suggestion = teamSuggestions.suggest(
+                skills != null && !skills.isEmpty() ? skills : project.tags(),
+                teamSkills, teamIds, cursorPagination.resolveLimit(limit));
+
+        Map<UUID, UserProfileCard> members = userProfileCards.get(suggestion.memberIds());
+        ViewerOverlay viewer = viewerOverlays.forProfiles(members.keySet());
+        List<UserProfileResponse> responses = suggestion.memberIds().stream()
+                .map(members::get)
+                .filter(Objects::nonNull)
+                .map(profile -> UserProfileResponse.from(profile, viewer))
+                .toList();
+
+        return new TeamSuggestionResponse(responses, suggestion.coveredSkills(), suggestion.uncoveredSkills());
     }
 
     public ProjectResponse getById(Long id, ParticipantFilterRequest filter) {
-        Project project = projectRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Project not found: " + id));
+        ProjectCard project = findCards(List.of(id)).get(id);
+        if (project == null) {
+            throw new ResourceNotFoundException("Project not found: " + id);
+        }
+
+        return toDtos(List.of(project), participantFilter(filter)).get(0);
+    }
 
-        Set<UserProfile> participants = new HashSet<>(project.getParticipants());
+    // Фрагменты фильтра один раз сопоставляются со словарём, дальше — сравнение id
+    private Predicate<UserProfileCard> participantFilter(ParticipantFilterRequest filter) {
+        Predicate<UserProfileCard> predicate = p -> true;
+        if (filter == null) {
+            return predicate;
+        }
 
-        if (filter != null && filter.skills() != null && !filter.skills().isEmpty()) {
-            participants = participants.stream()
-                    .filter(p -> p.getSkills().stream()
-                            .anyMatch(skill -> filter.skills().stream()
-                                    .anyMatch(req -> skill.toLowerCase().contains(req.toLowerCase()))
-                            )
-                    )
-                    .collect(Collectors.toSet());
+        Set<Integer> skillIds = termDictionary.matching(filter.skills());
+        if (skillIds != null) {
+            predicate = predicate.and(p -> p.skillIds().stream().anyMatch(skillIds::contains));
         }
 
-        if (filter != null && filter.interests() != null && !filter.interests().isEmpty()) {
-            participants = participants.stream()
-                    .filter(p -> p.getInterests().stream()
-                            .anyMatch(interest -> filter.interests().stream()
-                                    .anyMatch(req -> interest.toLowerCase().contains(req.toLowerCase()))
-                            )
-                    )
-                    .collect(Collectors.toSet());
+        Set<Integer> interestIds = termDictionary.matching(filter.interests());
+        if (interestIds != null) {
+            predicate = predicate.and(p -> p.interestIds().stream().anyMatch(interestIds::contains));
         }
 
-        return toDto(project, participants);
+        return predicate;
     }
 
     public ProjectResponse update(Long id, ProjectRequestDto request) {
@@ -125,10 +234,13 @@ public class ProjectService {
 
         project.setName(request.getName());
         project.setDescription(request.getDescription());
-        project.setTags(request.getTags());
+        project.setTagIds(termDictionary.idsOf(request.getTags()));
         project.setStatus(request.getStatus());
 
-        return toDto(projectRepository.save(project));
+        Project saved = projectRepository.save(project);
+        detailCache.invalidate(DetailCache.PROJECT, id);
+        eventPublisher.publishEvent(new ItemChanged(ItemChanged.Kind.PROJECT, id));
+        return toDto(saved);
     }
 
     public void delete(Long id) {
@@ -136,8 +248,49 @@ public class ProjectService {
             throw new ResourceNotFoundException("Project not found: " + id);
         }
         projectRepository.deleteById(id);
+        detailCache.invalidate(DetailCache.PROJECT, id);
+        eventPublisher.publishEvent(new ItemChanged(ItemChanged.Kind.PROJECT, id));
+    }
+
+    // Организатор добавляет или убирает участников пачкой: одна вставка/удаление на множестве id
+    // и сдвиг счётчика, без загрузки проекта и коллекции участников
+    @Transactional
+    public ParticipantsResponse addParticipants(Long id, ParticipantsRequest request) {
+        Set<UUID> userIds = participantIds(id, request);
+        return changeParticipants(id, projectRepository.insertParticipants(id, userIds), true);
+    }
+
+    @Transactional
+    public ParticipantsResponse removeParticipants(Long id, ParticipantsRequest request) {
+        Set<UUID> userIds = participantIds(id, request);
+        return changeParticipants(id, projectRepository.deleteParticipants(id, userIds), false);
+    }
+
+    private Set<UUID> participantIds(Long id, ParticipantsRequest request) {
+        UUID organizerId = projectRepository.findOrganizerId(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found: " + id));
+        if (!organizerId.equals(getCurrentUserId())) {
+            throw new AccessDeniedException("Управлять участниками может только организатор проекта");
+        }
+
+        if (request.participantIds().size() > maxBatchSize) {
+            throw new BadRequestException("participantIds must contain at most " + maxBatchSize + " ids");
+        }
+        return request.participantIds();
     }
 
+    private ParticipantsResponse changeParticipants(Long id, List<UUID> changed, boolean added) {
+        Integer participantCount = projectRepository.shiftParticipantCount(id, added ? changed.size() : -changed.size())
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found: " + id));
+
+        if (!changed.isEmpty()) {
+            detailCache.invalidate(DetailCache.PROJECT, id);
+            eventPublisher.publishEvent(new InteractionsChanged(ItemChanged.Kind.PROJECT, id, changed, added));
+        }
+        return new ParticipantsResponse(id, participantCount, changed.size());
+    }
+
+        @Transactional
         public ProjectResponse addParticipant(Long projectId, String invitationCode) {
                 Project project = projectRepository.findById(projectId)
                         .orElseThrow(() -> new ResourceNotFoundException("Project not found: " + projectId));
@@ -147,19 +300,21 @@ public class ProjectService {
                 UserProfile participant = userProfileRepository.findById(userId)
                         .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-                if (project.getStatus() == ProjectStatus.PUBLIC) {
-                        project.getParticipants().add(participant);
-                        return toDto(projectRepository.save(project));
-                }
-
-                if (project.getInvitationCode() == null || !project.getInvitationCode().equals(invitationCode)) {
+                if (project.getStatus() != ProjectStatus.PUBLIC
+                                && (project.getInvitationCode() == null || !project.getInvitationCode().equals(invitationCode))) {
                         throw new AccessDeniedException("Неверный код приглашения");
                 }
 
-                project.getParticipants().add(participant);
+                if (project.getParticipants().add(participant)) {
+                        projectRepository.adjustParticipantCount(projectId, 1);
+                        project.setParticipantCount(project.getParticipantCount() + 1);
+                        detailCache.invalidate(DetailCache.PROJECT, projectId);
+                        eventPublisher.publishEvent(new InteractionChanged(ItemChanged.Kind.PROJECT, projectId, userId, true));
+                }
                 return toDto(projectRepository.save(project));
         }
 
+    @Transactional
     public ProjectResponse removeParticipant(Long id) {
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found: " + id));
@@ -169,37 +324,33 @@ public class ProjectService {
         UserProfile participant = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        project.getParticipants().remove(participant);
+        if (project.getParticipants().remove(participant)) {
+            projectRepository.adjustParticipantCount(id, -1);
+            project.setParticipantCount(project.getParticipantCount() - 1);
+            detailCache.invalidate(DetailCache.PROJECT, id);
+            eventPublisher.publishEvent(new InteractionChanged(ItemChanged.Kind.PROJECT, id, userId, false));
+        }
 
         return toDto(projectRepository.save(project));
     }
 
-    public List<ProjectResponse> search(ProjectSearchRequest request) {
+    public CursorPage<ProjectResponse> search(ProjectSearchRequest request, String cursor, Integer limit) {
+        Specification<Project> spec = ProjectSpecification.search(request, termDictionary.matching(request.tags()))
+                .and(KeysetSpecification.idAfter(cursorPagination.decodeLong(cursor)));
 
-        List<Project> projects = projectRepository.findAll(ProjectSpecification.search(request));
-
-        if (request.tags() != null && !request.tags().isEmpty()) {
-            projects = projects.stream()
-                    .filter(project -> request.tags().stream()
-                            .anyMatch(tag -> project.getTags().stream()
-                                    .anyMatch(t -> t.toLowerCase().contains(tag.toLowerCase()))
-                            )
-                    )
-                    .collect(Collectors.toList());
+        if (Boolean.TRUE.equals(request.onlyMyProjects())) {
+            spec = spec.and(ProjectSpecification.organizedBy(getCurrentUserId()));
         }
 
-        if (Boolean.TRUE.equals(request.onlyMyProjects())) {
-            UUID currentUserId = getCurrentUserId();
+        CursorPage<Long> page = fetchPage(spec, cursorPagination.resolveLimit(limit));
+        return page.withItems(toDtosByIds(page.items()));
+    }
 
-            projects = projects.stream()
-                    .filter(project -> project.getOrganizer() != null &&
-                            project.getOrganizer().getId().equals(currentUserId))
-                    .collect(Collectors.toList());
-        }
+    // Страница выбирает только id; содержимое берётся из кэша карточек
+    private CursorPage<Long> fetchPage(Specification<Project> spec, int limit) {
+        List<Long> ids = idPage.find(Project.class, Long.class, spec, limit + 1);
 
-        return projects.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return cursorPagination.slice(ids, limit, id -> id);
     }
 
     public String updateInvitationCode(Long projectId) {
@@ -209,6 +360,7 @@ public class ProjectService {
         String newCode = generateFormattedCode();
         project.setInvitationCode(newCode);
         projectRepository.save(project);
+        detailCache.invalidate(DetailCache.PROJECT, projectId);
 
         return newCode;
     }
@@ -226,67 +378,102 @@ public class ProjectService {
         );
     }
 
-    public ProjectResponse likeProject(Long projectId) {
-        UUID currentUserId = getCurrentUserId();
+    // Ранжированный полнотекстовый поиск; курсор следующей страницы — по (rank, id)
+    public CursorPage<SearchHit<ProjectResponse>> fullTextSearch(String query, String cursor, Integer limit) {
+        int pageSize = cursorPagination.resolveLimit(limit);
+        List<FullTextSearch.Match<Long>> matches = fullTextSearch.projects(query, cursorPagination.decodeRanked(cursor), pageSize + 1);
+        return toHits(cursorPagination.slice(matches, pageSize, FullTextSearch.Match::key));
+    }
 
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResourceNotFoundException("Project not found: " + projectId));
+    // Все проекты в NDJSON. Карточки читаются из БД мимо кэша, чтобы выгрузка не вытесняла горячие записи
+    public void export(OutputStream out) {
+        ndjsonExport.write(out, "SELECT id FROM projects ORDER BY id", (rs, rowNum) -> rs.getLong(1),
+                ids -> toDtos(projectRepository.findAllDetailedByIdIn(ids).stream()
+                        .sorted(Comparator.comparing(Project::getId))
+                        .map(project -> ProjectCard.from(project, termDictionary))
+                        .toList(), p -> true));
+    }
 
-        UserProfile user = userProfileRepository.findById(currentUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + currentUserId));
+    public FacetedSearchResponse<ProjectResponse> indexSearch(String query, Set<String> tags, Set<String> statuses, String cursor, Integer limit) {
+        int pageSize = cursorPagination.resolveLimit(limit);
+        LuceneSearch.Result<Long> result = luceneSearch.projects(query, tags, statuses, cursorPagination.decodeRanked(cursor), pageSize + 1);
+        CursorPage<SearchHit<ProjectResponse>> page = toHits(cursorPagination.slice(result.matches(), pageSize, FullTextSearch.Match::key));
+        return new FacetedSearchResponse<>(page.items(), result.facets(), page.nextCursor());
+    }
 
-        project.getLikes().add(user);
+    private CursorPage<SearchHit<ProjectResponse>> toHits(CursorPage<FullTextSearch.Match<Long>> page) {
+        Map<Long, ProjectResponse> responses = toDtosByIds(page.items().stream().map(FullTextSearch.Match::id).toList()).stream()
+                .collect(Collectors.toMap(ProjectResponse::id, response -> response));
+        return page.withItems(page.items().stream()
+                .filter(match -> responses.containsKey(match.id()))
+                .map(match -> new SearchHit<>(responses.get(match.id()), match.rank(), match.snippet()))
+                .toList());
+    }
 
-        return toDto(projectRepository.save(project), project.getParticipants());
+    public LikeResponse likeProject(Long projectId) {
+        return setLiked(projectId, true);
     }
 
-    public ProjectResponse unlikeProject(Long projectId) {
-        UUID currentUserId = getCurrentUserId();
+    public LikeResponse unlikeProject(Long projectId) {
+        return setLiked(projectId, false);
+    }
 
-        Project project = projectRepository.findById(projectId)
+    private LikeResponse setLiked(Long projectId, boolean liked) {
+        UUID userId = getCurrentUserId();
+
+        if (!likeBuffer.isEnabled()) {
+            Integer likeCount = (liked ? projectRepository.like(projectId, userId) : projectRepository.unlike(projectId, userId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Project not found: " + projectId));
+            detailCache.invalidate(DetailCache.PROJECT, projectId);
+            eventPublisher.publishEvent(new InteractionChanged(ItemChanged.Kind.PROJECT, projectId, userId, liked));
+            return new LikeResponse(projectId, likeCount, liked);
+        }
+
+        // Write-behind: в БД только чтения, запись уйдёт пачкой из LikeFlushService
+        Integer persistedCount = projectRepository.findLikeCount(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found: " + projectId));
+        long pendingDelta = likeBuffer.setLiked(LikeTarget.PROJECT, projectId, userId, liked,
+                () -> projectRepository.isLikedBy(projectId, userId));
+
+        return new LikeResponse(projectId, (int) (persistedCount + pendingDelta), liked);
+    }
 
-        UserProfile user = userProfileRepository.findById(currentUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + currentUserId));
+    // Ответ на запись собирается из сущности: карточка в кэше будет сброшена только после коммита
+    private ProjectResponse toDto(Project project) {
+        Map<UUID, UserProfileCard> profiles = Stream.concat(Stream.of(project.getOrganizer()), project.getParticipants().stream())
+                .collect(Collectors.toMap(UserProfile::getId, profile -> UserProfileCard.from(profile, termDictionary), (first, second) -> first));
+
+        return toDtos(List.of(ProjectCard.from(project, termDictionary)), profiles, p -> true).get(0);
+    }
 
-        project.getLikes().remove(user);
+    private List<ProjectResponse> toDtosByIds(List<Long> ids) {
+        Map<Long, ProjectCard> cards = findCards(ids);
 
-        return toDto(projectRepository.save(project), project.getParticipants());
+        return toDtos(ids.stream().map(cards::get).filter(Objects::nonNull).toList(), p -> true);
     }
 
+    private List<ProjectResponse> toDtos(List<ProjectCard> projects, Predicate<UserProfileCard> participantFilter) {
+        Set<UUID> profileIds = new HashSet<>();
+        for (ProjectCard project : projects) {
+            profileIds.add(project.organizerId());
+            profileIds.addAll(project.participantIds());
+        }
 
+        return toDtos(projects, userProfileCards.get(profileIds), participantFilter);
+    }
 
+    private List<ProjectResponse> toDtos(List<ProjectCard> projects, Map<UUID, UserProfileCard> profiles,
+                                         Predicate<UserProfileCard> participantFilter) {
+        ViewerOverlay viewer = viewerOverlays.forProjects(projects.stream().map(ProjectCard::id).toList(), profiles.keySet());
 
+        return projects.stream()
+                .map(project -> ProjectResponse.from(project, profiles, participantFilter, viewer))
+                .toList();
+    }
 
-    private ProjectResponse toDto(Project project) {
-        return toDto(project, project.getParticipants());
-    }
-
-    private ProjectResponse toDto(Project project, Set<UserProfile> participants) {
-        UUID currentUserId = getCurrentUserId();
-
-        String code = project.getOrganizer().getId().equals(currentUserId) 
-                ? project.getInvitationCode() 
-                : null;
-
-        boolean liked = project.getLikes().stream()
-            .anyMatch(u -> u.getId().equals(currentUserId));
-
-        return new ProjectResponse(
-                project.getId(),
-                UserProfileResponse.from(project.getOrganizer(), currentUserId),
-                project.getName(),
-                project.getDescription(),
-                project.getTags(),
-                participants.stream()
-                        .map(p -> UserProfileResponse.from(p, currentUserId))
-                        .collect(Collectors.toSet()),
-                project.getLikes().size(),
-                liked,
-                code,
-                project.getStatus()
-        );
+    private Map<Long, ProjectCard> findCards(List<Long> ids) {
+        return detailCache.getAll(DetailCache.PROJECT, ids, ProjectCard.class,
+                missing -> projectRepository.findAllDetailedByIdIn(missing).stream()
+                        .collect(Collectors.toMap(Project::getId, project -> ProjectCard.from(project, termDictionary))));
     }
 }
-
-// 3T-7Y-CL
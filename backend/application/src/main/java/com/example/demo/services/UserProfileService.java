@@ -1,20 +1,45 @@
 package com.example.demo.services;
 
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.example.demo.dtos.UserProfile.UserProfileRequest;
 import com.example.demo.dtos.UserProfile.UserProfileResponse;
 import com.example.demo.dtos.UserProfile.UserProfileSearchRequest;
+import com.example.demo.dtos.card.UserProfileCard;
+import com.example.demo.dtos.card.ViewerOverlay;
+import com.example.demo.dtos.page.CursorPage;
+import com.example.demo.dtos.reaction.StarResponse;
+import com.example.demo.dtos.search.FacetedSearchResponse;
+import com.example.demo.dtos.search.SearchHit;
 import com.example.demo.entities.UserProfile;
 import com.example.demo.exception.exceptions.ResourceNotFoundException;
 import com.example.demo.repositories.UserProfileRepository;
+import com.example.demo.repositories.specifications.KeysetSpecification;
 import com.example.demo.repositories.specifications.UserProfileSpecifications;
 import com.example.demo.security.IUserProfile;
+import com.example.demo.services.cache.DetailCache;
+import com.example.demo.services.cache.UserProfileCards;
+import com.example.demo.services.export.NdjsonExport;
+import com.example.demo.services.pagination.CursorPagination;
+import com.example.demo.services.pagination.IdPage;
+import com.example.demo.services.recommendation.ProfileChanged;
+import com.example.demo.services.recommendation.RecommendationLists;
+import com.example.demo.services.recommendation.SimilarProfiles;
+import com.example.demo.services.search.FullTextSearch;
+import com.example.demo.services.search.LuceneSearch;
+import com.example.demo.services.terms.TermDictionary;
+import com.example.demo.services.viewer.ViewerOverlays;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,6 +48,18 @@ import lombok.RequiredArgsConstructor;
 public class UserProfileService {
 
     private final UserProfileRepository userProfileRepository;
+    private final CursorPagination cursorPagination;
+    private final IdPage idPage;
+    private final DetailCache detailCache;
+    private final UserProfileCards userProfileCards;
+    private final ViewerOverlays viewerOverlays;
+    private final TermDictionary termDictionary;
+    private final FullTextSearch fullTextSearch;
+    private final LuceneSearch luceneSearch;
+    private final NdjsonExport ndjsonExport;
+    private final RecommendationLists recommendationLists;
+    private final SimilarProfiles similarProfiles;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserProfileResponse create(UserProfileRequest request) {
         IUserProfile principal = (IUserProfile) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -34,11 +71,12 @@ public class UserProfileService {
                 .lastName(request.lastName())
                 .description(request.description())
                 .status(request.status())
-                .skills(request.skills())
-                .interests(request.interests())
+                .skillIds(termDictionary.idsOf(request.skills()))
+                .interestIds(termDictionary.idsOf(request.interests()))
                 .build();
 
         userProfileRepository.save(profile);
+        eventPublisher.publishEvent(new ProfileChanged(profile.getId()));
 
         return toDto(profile);
     }
@@ -51,124 +89,104 @@ public class UserProfileService {
                         .lastName(request.lastName())
                         .description(request.description())
                         .status(request.status())
-                        .skills(request.skills())
-                        .interests(request.interests())
+                        .skillIds(termDictionary.idsOf(request.skills()))
+                        .interestIds(termDictionary.idsOf(request.interests()))
                         .build();
 
                 userProfileRepository.save(profile);
+                eventPublisher.publishEvent(new ProfileChanged(profile.getId()));
 
                 return toDto(profile);
         }
 
-    public List<UserProfileResponse> getRecommendations() {
-
-        IUserProfile principal = (IUserProfile) SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getPrincipal();
-
-        UUID userId = UUID.fromString(principal.getUserId());
-
-        UserProfile currentUser = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public List<UserProfileResponse> getRecommendations(Integer limit) {
+        return toDtosByIds(recommendationLists.profiles(getCurrentUserId(), cursorPagination.resolveLimit(limit)));
+    }
 
-        Set<String> interests = currentUser.getInterests();
+    public List<UserProfileResponse> getSimilar(Integer limit) {
+        return toDtosByIds(similarProfiles.similarTo(getCurrentUserId(), cursorPagination.resolveLimit(limit)));
+    }
 
-        if (interests == null || interests.isEmpty()) {
-            return List.of(); 
-        }
+    public CursorPage<UserProfileResponse> findAll(String cursor, Integer limit) {
+        Specification<UserProfile> spec = KeysetSpecification.idAfter(cursorPagination.decodeUuid(cursor));
 
-        UserProfileSearchRequest request = new UserProfileSearchRequest(
-                null,       
-                null,        
-                interests,   
-                null        
-        );
+        CursorPage<UUID> page = fetchPage(spec, cursorPagination.resolveLimit(limit));
+        return page.withItems(toDtosByIds(page.items()));
+    }
 
-        List<UserProfileResponse> responses = search(request);
+    public CursorPage<UserProfileResponse> search(UserProfileSearchRequest request, String cursor, Integer limit) {
+        Specification<UserProfile> spec = UserProfileSpecifications.search(request,
+                        termDictionary.matching(request.skills()), termDictionary.matching(request.interests()))
+                .and(KeysetSpecification.idAfter(cursorPagination.decodeUuid(cursor)));
 
-        return responses.stream()
-                .filter(p -> !p.id().equals(currentUser.getId()))
-                .toList();
+        CursorPage<UUID> page = fetchPage(spec, cursorPagination.resolveLimit(limit));
+        return page.withItems(toDtosByIds(page.items()));
     }
 
-    public List<UserProfileResponse> findAll() {
-        List<UserProfile> profiles = userProfileRepository.findAll();
+    // Страница выбирает только id; содержимое берётся из кэша карточек
+    private CursorPage<UUID> fetchPage(Specification<UserProfile> spec, int limit) {
+        List<UUID> ids = idPage.find(UserProfile.class, UUID.class, spec, limit + 1);
 
-        return profiles.stream()
-                .map(this::toDto)
-                .toList();
+        return cursorPagination.slice(ids, limit, id -> id);
     }
 
-    public List<UserProfileResponse> search(UserProfileSearchRequest request) {
-
-        List<UserProfile> profiles = userProfileRepository.findAll(
-                UserProfileSpecifications.searchByNameAndStatus(request.text(), request.status())
-        );
+    // Ранжированный полнотекстовый поиск; курсор следующей страницы — по (rank, id)
+    public CursorPage<SearchHit<UserProfileResponse>> fullTextSearch(String query, String cursor, Integer limit) {
+        int pageSize = cursorPagination.resolveLimit(limit);
+        List<FullTextSearch.Match<UUID>> matches = fullTextSearch.userProfiles(query, cursorPagination.decodeRanked(cursor), pageSize + 1);
+        return toHits(cursorPagination.slice(matches, pageSize, FullTextSearch.Match::key));
+    }
 
-        if (request.skills() != null && !request.skills().isEmpty()) {
-            profiles = profiles.stream()
-                    .filter(profile -> profile.getSkills().stream()
-                            .anyMatch(skill -> request.skills().stream()
-                                    .anyMatch(s -> skill.toLowerCase().contains(s.toLowerCase()))
-                            )
-                    )
-                    .toList();
-        }
+    // Все профили в NDJSON. Карточки читаются из БД мимо кэша, чтобы выгрузка не вытесняла горячие записи
+    public void export(OutputStream out) {
+        ndjsonExport.write(out, "SELECT id FROM user_profiles ORDER BY id", (rs, rowNum) -> rs.getObject(1, UUID.class),
+                ids -> toDtos(ids, userProfileRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(UserProfile::getId, profile -> UserProfileCard.from(profile, termDictionary)))));
+    }
 
-        if (request.interests() != null && !request.interests().isEmpty()) {
-            profiles = profiles.stream()
-                    .filter(profile -> profile.getInterests().stream()
-                            .anyMatch(interest -> request.interests().stream()
-                                    .anyMatch(i -> interest.toLowerCase().contains(i.toLowerCase()))
-                            )
-                    )
-                    .toList();
-        }
+    public FacetedSearchResponse<UserProfileResponse> indexSearch(String query, Set<String> skills, Set<String> statuses, String cursor, Integer limit) {
+        int pageSize = cursorPagination.resolveLimit(limit);
+        LuceneSearch.Result<UUID> result = luceneSearch.userProfiles(query, skills, statuses, cursorPagination.decodeRanked(cursor), pageSize + 1);
+        CursorPage<SearchHit<UserProfileResponse>> page = toHits(cursorPagination.slice(result.matches(), pageSize, FullTextSearch.Match::key));
+        return new FacetedSearchResponse<>(page.items(), result.facets(), page.nextCursor());
+    }
 
-        return profiles.stream()
-                .map(this::toDto)
-                .toList();
+    private CursorPage<SearchHit<UserProfileResponse>> toHits(CursorPage<FullTextSearch.Match<UUID>> page) {
+        Map<UUID, UserProfileResponse> responses = toDtosByIds(page.items().stream().map(FullTextSearch.Match::id).toList()).stream()
+                .collect(Collectors.toMap(UserProfileResponse::id, response -> response));
+        return page.withItems(page.items().stream()
+                .filter(match -> responses.containsKey(match.id()))
+                .map(match -> new SearchHit<>(responses.get(match.id()), match.rank(), match.snippet()))
+                .toList());
     }
 
     public UserProfileResponse getById(UUID id) {
-        return toDto(get(id));
-    }
+        UserProfileCard profile = userProfileCards.get(List.of(id)).get(id);
+        if (profile == null) {
+            throw new ResourceNotFoundException("UserProfile not found: " + id);
+        }
 
-        public UserProfileResponse starUser(UUID targetUserId) {
-                UUID currentUserId = getCurrentUserId();
+        return UserProfileResponse.from(profile, viewerOverlays.forProfiles(List.of(id)));
+    }
 
+        public StarResponse starUser(UUID targetUserId) {
                 // if (currentUserId.equals(targetUserId)) {
                 //         throw new IllegalArgumentException("You cannot star yourself");
                 // }
 
-                UserProfile target = userProfileRepository.findById(targetUserId)
+                Integer starCount = userProfileRepository.star(targetUserId, getCurrentUserId())
                         .orElseThrow(() -> new ResourceNotFoundException("User not found: " + targetUserId));
+                detailCache.invalidate(DetailCache.USER_PROFILE, targetUserId);
 
-                UserProfile me = userProfileRepository.findById(currentUserId)
-                        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + currentUserId));
-
-                target.getStars().add(me);
-
-                UserProfile saved = userProfileRepository.save(target);
-
-                return toDto(saved); 
+                return new StarResponse(targetUserId, starCount, true);
         }
 
-        public UserProfileResponse unstarUser(UUID targetUserId) {
-                UUID currentUserId = getCurrentUserId();
-
-                UserProfile target = userProfileRepository.findById(targetUserId)
+        public StarResponse unstarUser(UUID targetUserId) {
+                Integer starCount = userProfileRepository.unstar(targetUserId, getCurrentUserId())
                         .orElseThrow(() -> new ResourceNotFoundException("User not found: " + targetUserId));
+                detailCache.invalidate(DetailCache.USER_PROFILE, targetUserId);
 
-                UserProfile me = userProfileRepository.findById(currentUserId)
-                        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + currentUserId));
-
-                target.getStars().remove(me);
-
-                UserProfile saved = userProfileRepository.save(target);
-
-                return toDto(saved); 
+                return new StarResponse(targetUserId, starCount, false);
         }
 
     private UserProfile get(UUID id) {
@@ -183,10 +201,12 @@ public class UserProfileService {
         profile.setLastName(request.lastName());
         profile.setDescription(request.description());
         profile.setStatus(request.status());
-        profile.setSkills(request.skills());
-        profile.setInterests(request.interests());
+        profile.setSkillIds(termDictionary.idsOf(request.skills()));
+        profile.setInterestIds(termDictionary.idsOf(request.interests()));
 
         userProfileRepository.save(profile);
+        detailCache.invalidate(DetailCache.USER_PROFILE, id);
+        eventPublisher.publishEvent(new ProfileChanged(id));
 
         return toDto(profile);
     }
@@ -196,25 +216,27 @@ public class UserProfileService {
             throw new ResourceNotFoundException("UserProfile not found: " + id);
         }
         userProfileRepository.deleteById(id);
+        detailCache.invalidate(DetailCache.USER_PROFILE, id);
+        eventPublisher.publishEvent(new ProfileChanged(id));
     }
 
+        // Ответ на запись собирается из сущности: карточка в кэше будет сброшена только после коммита
         private UserProfileResponse toDto(UserProfile profile) {
-                UUID currentUserId = getCurrentUserId();
-
-                boolean starred = profile.getStars().stream()
-                        .anyMatch(u -> u.getId().equals(currentUserId)); 
-
-                return new UserProfileResponse(
-                        profile.getId(),
-                        profile.getFirstName(),
-                        profile.getLastName(),
-                        profile.getDescription(),
-                        profile.getStatus(),
-                        profile.getSkills(),
-                        profile.getInterests(),
-                        profile.getStars().size(), 
-                        starred                   
-                );
+                return UserProfileResponse.from(UserProfileCard.from(profile, termDictionary), viewerOverlays.forProfiles(List.of(profile.getId())));
+        }
+
+        private List<UserProfileResponse> toDtosByIds(List<UUID> ids) {
+                return toDtos(ids, userProfileCards.get(ids));
+        }
+
+        private List<UserProfileResponse> toDtos(List<UUID> ids, Map<UUID, UserProfileCard> cards) {
+                ViewerOverlay viewer = viewerOverlays.forProfiles(cards.keySet());
+
+                return ids.stream()
+                        .map(cards::get)
+                        .filter(Objects::nonNull)
+                        .map(profile -> UserProfileResponse.from(profile, viewer))
+                        .toList();
         }
 
     private UUID getCurrentUserId() {
@@ -0,0 +1,94 @@
+package com.example.demo.services.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// Пары «владелец — термин». Владелец тега — событие или проект, навыка и интереса — профиль
+@Component
+@RequiredArgsConstructor
+class AutocompleteLoader {
+
+    private static final String TAGS = """
+            SELECT 'event:' || t.event_id AS owner, d.term FROM event_tag_terms t JOIN terms d ON d.id = t.term_id
+            UNION ALL
+            SELECT 'project:' || t.project_id, d.term FROM project_tag_terms t JOIN terms d ON d.id = t.term_id
+            """;
+
+    private static final String SKILLS = """
+            SELECT s.user_profile_id::text AS owner, d.term
+            FROM user_profile_skill_terms s JOIN terms d ON d.id = s.term_id
+            """;
+
+    private static final String INTERESTS = """
+            SELECT i.user_profile_id::text AS owner, d.term
+            FROM user_profile_interest_terms i JOIN terms d ON d.id = i.term_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    Map<String, Set<String>> loadAll(TermType type) {
+        Map<String, Set<String>> termsByOwner = new HashMap<>();
+        String sql = switch (type) {
+            case TAG -> TAGS;
+            case SKILL -> SKILLS;
+            case INTEREST -> INTERESTS;
+        };
+        jdbcTemplate.query(sql, rs -> {
+            termsByOwner.computeIfAbsent(rs.getString("owner"), owner -> new HashSet<>()).add(rs.getString("term"));
+        });
+        return termsByOwner;
+    }
+
+    List<String> loadEventTags(Long id) {
+        return jdbcTemplate.queryForList(
+                "SELECT d.term FROM event_tag_terms t JOIN terms d ON d.id = t.term_id WHERE t.event_id = ?",
+                String.class, id);
+    }
+
+    List<String> loadProjectTags(Long id) {
+        return jdbcTemplate.queryForList(
+                "SELECT d.term FROM project_tag_terms t JOIN terms d ON d.id = t.term_id WHERE t.project_id = ?",
+                String.class, id);
+    }
+
+    Map<Long, List<String>> loadEventTags(Collection<Long> ids) {
+        return loadTags("SELECT t.event_id AS owner, d.term FROM event_tag_terms t JOIN terms d ON d.id = t.term_id "
+                + "WHERE t.event_id = ANY(?)", ids);
+    }
+
+    Map<Long, List<String>> loadProjectTags(Collection<Long> ids) {
+        return loadTags("SELECT t.project_id AS owner, d.term FROM project_tag_terms t JOIN terms d ON d.id = t.term_id "
+                + "WHERE t.project_id = ANY(?)", ids);
+    }
+
+    List<String> loadSkills(UUID id) {
+        return jdbcTemplate.queryForList(
+                "SELECT d.term FROM user_profile_skill_terms s JOIN terms d ON d.id = s.term_id WHERE s.user_profile_id = ?",
+                String.class, id);
+    }
+
+    List<String> loadInterests(UUID id) {
+        return jdbcTemplate.queryForList(
+                "SELECT d.term FROM user_profile_interest_terms i JOIN terms d ON d.id = i.term_id WHERE i.user_profile_id = ?",
+                String.class, id);
+    }
+
+    private Map<Long, List<String>> loadTags(String sql, Collection<Long> ids) {
+        Map<Long, List<String>> tagsByOwner = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            tagsByOwner.computeIfAbsent(rs.getLong("owner"), owner -> new ArrayList<>()).add(rs.getString("term"));
+        }, (Object) ids.toArray(Long[]::new));
+        return tagsByOwner;
+    }
+}
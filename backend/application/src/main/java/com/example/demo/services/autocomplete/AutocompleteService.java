@@ -0,0 +1,113 @@
+package com.example.demo.services.autocomplete;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.dtos.autocomplete.TermSuggestion;
+import com.example.demo.services.recommendation.ItemChanged;
+import com.example.demo.services.recommendation.ItemsChanged;
+import com.example.demo.services.recommendation.ProfileChanged;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Подсказки существующих тегов, навыков и интересов по префиксу, самые используемые первыми.
+// Запрос обслуживается из памяти; словари обновляются после изменения объекта и
+// полностью пересобираются при старте и по расписанию
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AutocompleteService {
+
+    private final AutocompleteLoader loader;
+
+    private final Map<TermType, Vocabulary> vocabularies = new EnumMap<>(TermType.class);
+
+    @Value("${autocomplete.max-suggestions:10}")
+    private int maxSuggestions;
+
+    @PostConstruct
+    void init() {
+        for (TermType type : TermType.values()) {
+            vocabularies.put(type, new Vocabulary(maxSuggestions));
+        }
+    }
+
+    public List<TermSuggestion> complete(TermType type, String prefix, Integer limit) {
+        int size = limit == null || limit <= 0 ? maxSuggestions : Math.min(limit, maxSuggestions);
+        return vocabularies.get(type).complete(prefix == null ? "" : prefix, size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${autocomplete.rebuild-interval:PT1H}",
+            initialDelayString = "${autocomplete.rebuild-interval:PT1H}"
+    )
+    public void rebuild() {
+        vocabularies.forEach((type, vocabulary) -> {
+            vocabulary.beginRebuild();
+            try {
+                vocabulary.replaceAll(loader.loadAll(type));
+            } catch (DataAccessException e) {
+                vocabulary.cancelRebuild();
+                log.warn("Autocomplete vocabulary rebuild failed for {}", type, e);
+            }
+        });
+        log.info("Autocomplete vocabularies rebuilt: {} tag owners, {} skill owners, {} interest owners",
+                vocabularies.get(TermType.TAG).size(), vocabularies.get(TermType.SKILL).size(),
+                vocabularies.get(TermType.INTEREST).size());
+    }
+
+    // Удалённый объект просто не находит терминов — его вклад в частоты снимается
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChanged change) {
+        try {
+            switch (change.kind()) {
+                case EVENT -> vocabularies.get(TermType.TAG).update("event:" + change.id(), loader.loadEventTags(change.id()));
+                case PROJECT -> vocabularies.get(TermType.TAG).update("project:" + change.id(), loader.loadProjectTags(change.id()));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Autocomplete update failed for {} {}: {}", change.kind(), change.id(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChanged change) {
+        try {
+            String prefix = change.kind() == ItemChanged.Kind.EVENT ? "event:" : "project:";
+            Map<Long, List<String>> tags = change.kind() == ItemChanged.Kind.EVENT
+                    ? loader.loadEventTags(change.ids())
+                    : loader.loadProjectTags(change.ids());
+            for (Long id : change.ids()) {
+                vocabularies.get(TermType.TAG).update(prefix + id, tags.getOrDefault(id, List.of()));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Autocomplete update failed for {} {}: {}", change.kind(), change.ids(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChanged change) {
+        String owner = change.id().toString();
+        try {
+            vocabularies.get(TermType.SKILL).update(owner, loader.loadSkills(change.id()));
+            vocabularies.get(TermType.INTEREST).update(owner, loader.loadInterests(change.id()));
+        } catch (DataAccessException e) {
+            log.warn("Autocomplete update failed for profile {}: {}", owner, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.demo.services.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.dtos.autocomplete.TermSuggestion;
+
+// Префиксное дерево терминов с частотами. В каждом узле заранее посчитаны k самых частых
+// терминов поддерева, поэтому подсказка — это проход по символам префикса и готовый список.
+// При изменении частоты пересчитываются только узлы на пути к термину. Не потокобезопасно
+class PrefixTrie {
+
+    private static final Comparator<TermSuggestion> MOST_USED = Comparator.comparingInt(TermSuggestion::count)
+            .reversed()
+            .thenComparing(TermSuggestion::term);
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private String term;
+        private int count;
+        private List<TermSuggestion> top = List.of();
+    }
+
+    private final int k;
+    private final Node root = new Node();
+
+    PrefixTrie(int k) {
+        this.k = k;
+    }
+
+    // Для первоначального заполнения: после всех вставок нужен один вызов rebuildTops
+    void put(String term, int count) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+        }
+        node.term = term;
+        node.count = count;
+    }
+
+    void rebuildTops() {
+        rebuildTops(root);
+    }
+
+    void add(String term, int delta) {
+        List<Node> path = new ArrayList<>(term.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = delta > 0
+                    ? node.children.computeIfAbsent(term.charAt(i), c -> new Node())
+                    : node.children.get(term.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path.add(node);
+        }
+        node.term = term;
+        node.count = Math.max(0, node.count + delta);
+
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node current = path.get(depth);
+            if (depth > 0 && current.count == 0 && current.children.isEmpty()) {
+                path.get(depth - 1).children.remove(term.charAt(depth - 1));
+                continue;
+            }
+            current.top = top(current);
+        }
+    }
+
+    List<TermSuggestion> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return node.top.size() <= limit ? node.top : node.top.subList(0, limit);
+    }
+
+    private void rebuildTops(Node node) {
+        for (Node child : node.children.values()) {
+            rebuildTops(child);
+        }
+        node.top = top(node);
+    }
+
+    // Лучшие k поддерева — среди собственного термина и лучших k каждого потомка
+    private List<TermSuggestion> top(Node node) {
+        List<TermSuggestion> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(new TermSuggestion(node.term, node.count));
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(MOST_USED);
+        return List.copyOf(candidates.size() > k ? candidates.subList(0, k) : candidates);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.services.autocomplete;
+
+public enum TermType {
+    TAG,        // Теги событий и проектов
+    SKILL,      // Навыки профилей
+    INTEREST    // Интересы профилей
+}
@@ -0,0 +1,134 @@
+package com.example.demo.services.autocomplete;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.example.demo.dtos.autocomplete.TermSuggestion;
+import com.example.demo.services.terms.TermDictionary;
+
+// Словарь одного типа терминов: кто какие термины использует и префиксное дерево частот.
+// Частота термина — число владельцев (событий, проектов или профилей), у которых он есть
+class Vocabulary {
+
+    private final int k;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Set<String>> termsByOwner = new HashMap<>();
+    private PrefixTrie trie;
+    // Изменения, пришедшие во время пересборки: накладываются поверх нового снимка
+    private Map<String, Set<String>> changedDuringRebuild;
+
+    Vocabulary(int k) {
+        this.k = k;
+        this.trie = new PrefixTrie(k);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return termsByOwner.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<TermSuggestion> complete(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return trie.complete(TermDictionary.normalize(prefix), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void replaceAll(Map<String, ? extends Collection<String>> snapshot) {
+        Map<String, Set<String>> newTermsByOwner = new HashMap<>(snapshot.size() * 2);
+        Map<String, Integer> counts = new HashMap<>();
+        snapshot.forEach((owner, terms) -> {
+            Set<String> normalized = normalizeAll(terms);
+            if (!normalized.isEmpty()) {
+                newTermsByOwner.put(owner, normalized);
+                normalized.forEach(term -> counts.merge(term, 1, Integer::sum));
+            }
+        });
+        PrefixTrie newTrie = new PrefixTrie(k);
+        counts.forEach(newTrie::put);
+        newTrie.rebuildTops();
+
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.forEach((owner, terms) -> apply(newTermsByOwner, newTrie, owner, terms));
+                changedDuringRebuild = null;
+            }
+            termsByOwner = newTermsByOwner;
+            trie = newTrie;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Пустой набор — владелец удалён или у него больше нет терминов
+    void update(String owner, Collection<String> terms) {
+        Set<String> normalized = normalizeAll(terms);
+        lock.writeLock().lock();
+        try {
+            apply(termsByOwner, trie, owner, normalized);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(owner, normalized);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Map<String, Set<String>> termsByOwner, PrefixTrie trie, String owner, Set<String> terms) {
+        Set<String> previous = terms.isEmpty() ? termsByOwner.remove(owner) : termsByOwner.put(owner, terms);
+        if (previous == null) {
+            previous = Set.of();
+        }
+        for (String term : previous) {
+            if (!terms.contains(term)) {
+                trie.add(term, -1);
+            }
+        }
+        for (String term : terms) {
+            if (!previous.contains(term)) {
+                trie.add(term, 1);
+            }
+        }
+    }
+
+    private static Set<String> normalizeAll(Collection<String> terms) {
+        Set<String> normalized = new HashSet<>();
+        for (String term : terms) {
+            if (term != null && !term.isBlank()) {
+                normalized.add(TermDictionary.normalize(term));
+            }
+        }
+        return normalized;
+    }
+}
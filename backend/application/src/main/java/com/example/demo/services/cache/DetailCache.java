@@ -0,0 +1,279 @@
+package com.example.demo.services.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Двухуровневый read-through кэш карточек: локальный Caffeine перед общим Redis.
+// Ключ карточки в Redis включает поколение записи: инвалидация делает INCR поколения,
+// а запись в кэш проходит, только если поколение не изменилось с момента чтения — так
+// устаревшая выборка из БД не перезапишет свежую. Локальные копии на всех узлах
+// сбрасываются сообщением в INVALIDATION_CHANNEL
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DetailCache {
+
+    public static final String EVENT = "event";
+    public static final String PROJECT = "project";
+    public static final String USER_PROFILE = "user-profile";
+
+    public static final String INVALIDATION_CHANNEL = "detail-cache:invalidate";
+
+    // Меняется вместе с форматом карточек, чтобы не читать JSON старой структуры
+    private static final int SCHEMA_VERSION = 3;
+
+    // KEYS: ключи поколений; ARGV: префиксы ключей карточек. Возвращает пары [поколение, json]
+    private static final RedisScript<List> GET_ALL = RedisScript.of("""
+            local result = {}
+            for i, genKey in ipairs(KEYS) do
+                local gen = redis.call('GET', genKey) or '0'
+                result[2 * i - 1] = gen
+                result[2 * i] = redis.call('GET', ARGV[i] .. gen) or false
+            end
+            return result
+            """, List.class);
+
+    // KEYS[1]: ключ поколения; ARGV: префикс ключа карточки, ожидаемое поколение, json, ttl в секундах
+    private static final RedisScript<Long> PUT = RedisScript.of("""
+            if (redis.call('GET', KEYS[1]) or '0') ~= ARGV[2] then return 0 end
+            redis.call('SET', ARGV[1] .. ARGV[2], ARGV[3], 'EX', ARGV[4])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cache.detail.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.detail.ttl:PT10M}")
+    private Duration ttl;
+
+    @Value("${cache.detail.local.max-size:64MB}")
+    private DataSize localMaxSize;
+
+    // Страховка на случай потерянного pub/sub сообщения
+    @Value("${cache.detail.local.ttl:PT30S}")
+    private Duration localTtl;
+
+    private Cache<String, LocalEntry> local;
+
+    // Растёт при каждой локальной инвалидации; значение из Redis не кладётся в локальный кэш,
+    // если за время запроса пришла инвалидация — иначе можно вернуть в него уже сброшенную карточку
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record LocalEntry(Object value, int weight) {}
+
+    @PostConstruct
+    void init() {
+        local = Caffeine.newBuilder()
+                .maximumWeight(localMaxSize.toBytes())
+                .weigher((String key, LocalEntry entry) -> entry.weight())
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "detail.cache.local");
+    }
+
+    public <K, V> Optional<V> get(String region, K id, Class<V> type, Function<K, Optional<V>> loader) {
+        Map<K, V> found = getAll(region, List.of(id), type,
+                ids -> loader.apply(id).map(value -> Map.of(id, value)).orElse(Map.of()));
+        return Optional.ofNullable(found.get(id));
+    }
+
+    // Отсутствующие в кэше значения догружаются одним вызовом loader
+    public <K, V> Map<K, V> getAll(String region, Collection<K> ids, Class<V> type,
+                                   Function<Set<K>, Map<K, V>> loader) {
+        Set<K> keys = new LinkedHashSet<>(ids);
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        if (!enabled) {
+            return loader.apply(keys);
+        }
+
+        Map<K, V> result = new HashMap<>();
+        for (K id : keys) {
+            LocalEntry entry = local.getIfPresent(localKey(region, id));
+            if (entry != null) {
+                result.put(id, type.cast(entry.value()));
+            }
+        }
+        localHits(region).increment(result.size());
+        if (result.size() == keys.size()) {
+            return result;
+        }
+
+        List<K> order = keys.stream().filter(id -> !result.containsKey(id)).toList();
+        long epoch = invalidations.get();
+        List<?> cached = lookup(region, order);
+        if (cached == null) {
+            result.putAll(loader.apply(new LinkedHashSet<>(order)));
+            return result;
+        }
+
+        Map<K, String> generations = new HashMap<>();
+        int remoteHits = 0;
+        for (int i = 0; i < order.size(); i++) {
+            K id = order.get(i);
+            String json = (String) cached.get(2 * i + 1);
+            V value = deserialize(json, type);
+            if (value != null) {
+                result.put(id, value);
+                putLocal(region, id, value, json, epoch);
+                remoteHits++;
+            } else {
+                generations.put(id, (String) cached.get(2 * i));
+            }
+        }
+
+        hits(region).increment(remoteHits);
+        misses(region).increment(generations.size());
+
+        if (!generations.isEmpty()) {
+            Map<K, V> loaded = loader.apply(generations.keySet());
+            loaded.forEach((id, value) -> {
+                String json = store(region, id, generations.get(id), value);
+                if (json != null) {
+                    putLocal(region, id, value, json, epoch);
+                }
+            });
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    // После коммита, чтобы параллельное чтение не успело закэшировать ещё не зафиксированное состояние
+    public void invalidate(String region, Object id) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcastInvalidation(region, id);
+                }
+            });
+        } else {
+            broadcastInvalidation(region, id);
+        }
+    }
+
+    // Вызывается подписчиком INVALIDATION_CHANNEL, в том числе на узле-инициаторе
+    public void evictLocal(String localKey) {
+        invalidations.incrementAndGet();
+        local.invalidate(localKey);
+    }
+
+    private List<?> lookup(String region, List<?> ids) {
+        try {
+            return Timer.builder("detail.cache.latency")
+                    .tag("region", region)
+                    .register(meterRegistry)
+                    .record(() -> redisTemplate.execute(GET_ALL,
+                            ids.stream().map(id -> generationKey(region, id)).toList(),
+                            ids.stream().map(id -> cardKeyPrefix(region, id)).toArray()));
+        } catch (RuntimeException e) {
+            // Redis недоступен — отдаём из БД
+            log.warn("Detail cache lookup failed for {}: {}", region, e.getMessage());
+            meterRegistry.counter("detail.cache.requests", "region", region, "result", "error").increment();
+            return null;
+        }
+    }
+
+    // Возвращает json, если карточка записана в Redis, иначе null
+    private String store(String region, Object id, String generation, Object value) {
+        try {
+            String json = objectMapper.writeValueAsString(value);
+            Long stored = redisTemplate.execute(PUT, List.of(generationKey(region, id)),
+                    cardKeyPrefix(region, id), generation, json, String.valueOf(ttl.toSeconds()));
+            return stored != null && stored == 1 ? json : null;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Detail cache store failed for {} {}: {}", region, id, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putLocal(String region, Object id, Object value, String json, long epoch) {
+        if (invalidations.get() == epoch) {
+            local.put(localKey(region, id), new LocalEntry(value, json.length()));
+        }
+    }
+
+    private void broadcastInvalidation(String region, Object id) {
+        String localKey = localKey(region, id);
+        evictLocal(localKey);
+        try {
+            redisTemplate.opsForValue().increment(generationKey(region, id));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, localKey);
+        } catch (RuntimeException e) {
+            log.warn("Detail cache invalidation failed for {} {}: {}", region, id, e.getMessage());
+        }
+    }
+
+    private <V> V deserialize(String json, Class<V> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private Counter localHits(String region) {
+        return meterRegistry.counter("detail.cache.requests", "region", region, "result", "local-hit");
+    }
+
+    private Counter hits(String region) {
+        return meterRegistry.counter("detail.cache.requests", "region", region, "result", "hit");
+    }
+
+    private Counter misses(String region) {
+        return meterRegistry.counter("detail.cache.requests", "region", region, "result", "miss");
+    }
+
+    private static String localKey(String region, Object id) {
+        return region + ":" + id;
+    }
+
+    private static String generationKey(String region, Object id) {
+        return "detail:" + region + ":" + id + ":gen";
+    }
+
+    private static String cardKeyPrefix(String region, Object id) {
+        return "detail:" + region + ":v" + SCHEMA_VERSION + ":" + id + ":";
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.services.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dtos.card.UserProfileCard;
+import com.example.demo.entities.UserProfile;
+import com.example.demo.repositories.UserProfileRepository;
+import com.example.demo.services.terms.TermDictionary;
+
+import lombok.RequiredArgsConstructor;
+
+// Карточки профилей для ответов: из кэша, промахи — одним запросом к БД
+@Component
+@RequiredArgsConstructor
+public class UserProfileCards {
+
+    private final DetailCache detailCache;
+    private final UserProfileRepository userProfileRepository;
+    private final TermDictionary termDictionary;
+
+    public Map<UUID, UserProfileCard> get(Collection<UUID> ids) {
+        return detailCache.getAll(DetailCache.USER_PROFILE, ids, UserProfileCard.class,
+                missing -> userProfileRepository.findAllById(missing).stream()
+                        .collect(Collectors.toMap(UserProfile::getId, profile -> UserProfileCard.from(profile, termDictionary))));
+    }
+
+    public void invalidate(UUID id) {
+        detailCache.invalidate(DetailCache.USER_PROFILE, id);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.services.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+// Построчная выгрузка в NDJSON. Ключи читаются курсором на стороне БД (fetch size в pgjdbc
+// работает только внутри транзакции), строки собираются пачками и сразу уходят в поток.
+// После каждой пачки контекст персистентности очищается, так что память не растёт с числом строк
+@Component
+@RequiredArgsConstructor
+public class NdjsonExport {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${export.chunk-size:500}")
+    private int chunkSize;
+
+    @Transactional(readOnly = true)
+    public <K, R> void write(OutputStream out, String keyQuery, RowMapper<K> keyMapper, Function<List<K>, List<R>> mapper) {
+        List<K> chunk = new ArrayList<>(chunkSize);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(keyQuery);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            chunk.add(keyMapper.mapRow(rs, rs.getRow()));
+            if (chunk.size() == chunkSize) {
+                flush(out, chunk, mapper);
+            }
+        });
+        flush(out, chunk, mapper);
+    }
+
+    private <K, R> void flush(OutputStream out, List<K> chunk, Function<List<K>, List<R>> mapper) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            for (R row : mapper.apply(chunk)) {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+        entityManager.clear();
+    }
+}
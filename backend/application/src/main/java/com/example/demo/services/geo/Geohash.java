@@ -0,0 +1,94 @@
+package com.example.demo.services.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Geohash: чередование битов долготы и широты в base32. Ячейки с общим префиксом лежат рядом,
+// поэтому область на карте покрывается несколькими диапазонами строк по btree-индексу
+public final class Geohash {
+
+    public static final int PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private Geohash() {
+    }
+
+    public static String encode(double latitude, double longitude) {
+        return encode(latitude, longitude, PRECISION);
+    }
+
+    static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean lonBit = true;
+        int bits = 0;
+        int value = 0;
+
+        while (hash.length() < precision) {
+            if (lonBit) {
+                double mid = (minLon + maxLon) / 2;
+                value <<= 1;
+                if (longitude >= mid) {
+                    value |= 1;
+                    minLon = mid;
+                } else {
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                value <<= 1;
+                if (latitude >= mid) {
+                    value |= 1;
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
+            }
+            lonBit = !lonBit;
+
+            if (++bits == 5) {
+                hash.append(BASE32[value]);
+                bits = 0;
+                value = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    // Ячейки самой мелкой точности, которыми прямоугольник покрывается не более чем maxCells ячейками.
+    // Пустой список — прямоугольник слишком велик, ограничивать по geohash нечего
+    static List<String> cover(double minLat, double minLon, double maxLat, double maxLon, int maxCells) {
+        for (int precision = PRECISION; precision >= 1; precision--) {
+            int columns = 1 << (5 * precision + 1) / 2;
+            int rows = 1 << 5 * precision / 2;
+            double width = 360.0 / columns;
+            double height = 180.0 / rows;
+
+            int firstColumn = cellIndex(minLon + 180, width, columns);
+            int lastColumn = cellIndex(maxLon + 180, width, columns);
+            int firstRow = cellIndex(minLat + 90, height, rows);
+            int lastRow = cellIndex(maxLat + 90, height, rows);
+
+            long cells = (long) (lastColumn - firstColumn + 1) * (lastRow - firstRow + 1);
+            if (cells > maxCells) {
+                continue;
+            }
+
+            List<String> hashes = new ArrayList<>((int) cells);
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    hashes.add(encode(-90 + (row + 0.5) * height, -180 + (column + 0.5) * width, precision));
+                }
+            }
+            return hashes;
+        }
+        return List.of();
+    }
+
+    // Правая граница (180° / 90°) относится к последней ячейке
+    private static int cellIndex(double offset, double size, int count) {
+        return Math.max(0, Math.min(count - 1, (int) Math.floor(offset / size)));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.services.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dtos.event.NearbyEventsRequest;
+import com.example.demo.exception.exceptions.BadRequestException;
+
+import lombok.RequiredArgsConstructor;
+
+// Поиск событий рядом с точкой. Область запроса покрывается несколькими ячейками geohash,
+// каждая ячейка — диапазон по индексу idx_events_geohash (см. db/schema.sql); точная проверка
+// координат, радиуса и сортировка по расстоянию — только для строк из этих диапазонов
+@Component
+@RequiredArgsConstructor
+public class NearbyEvents {
+
+    public record Match(Long id, double distanceKm) {
+    }
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final int MAX_CELLS = 16;
+
+    // Гаверсинус; least() защищает asin от погрешности округления
+    private static final String DISTANCE = "2 * " + EARTH_RADIUS_KM + " * asin(sqrt(least(1, "
+            + "power(sin(radians(e.latitude - :lat) / 2), 2) "
+            + "+ cos(radians(:lat)) * cos(radians(e.latitude)) * power(sin(radians(e.longitude - :lon) / 2), 2))))";
+
+    private static final String SEARCH = """
+            SELECT e.id, %1$s AS distance
+            FROM events e
+            WHERE e.latitude BETWEEN :minLat AND :maxLat
+              AND e.longitude BETWEEN :minLon AND :maxLon
+              %2$s
+            ORDER BY distance, e.id
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${events.nearby.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    public List<Match> find(NearbyEventsRequest request, int limit) {
+        boolean hasCenter = request.lat() != null || request.lon() != null || request.radiusKm() != null;
+        boolean hasBox = request.minLat() != null || request.minLon() != null
+                || request.maxLat() != null || request.maxLon() != null;
+        if (!hasCenter && !hasBox) {
+            throw new BadRequestException("Either lat, lon and radiusKm or minLat, minLon, maxLat and maxLon are required");
+        }
+
+        Area area = hasBox ? box(request) : null;
+        double lat;
+        double lon;
+        if (hasCenter) {
+            if (request.lat() == null || request.lon() == null || request.radiusKm() == null) {
+                throw new BadRequestException("lat, lon and radiusKm must be given together");
+            }
+            requireCoordinates(request.lat(), request.lon());
+            if (request.radiusKm() <= 0 || request.radiusKm() > maxRadiusKm) {
+                throw new BadRequestException("radiusKm must be in (0, " + maxRadiusKm + "]");
+            }
+            lat = request.lat();
+            lon = request.lon();
+            Area circle = around(lat, lon, request.radiusKm());
+            area = area == null ? circle : area.intersect(circle);
+        } else {
+            lat = (area.minLat() + area.maxLat()) / 2;
+            lon = (area.minLon() + area.maxLon()) / 2;
+        }
+        if (area.isEmpty()) {
+            return List.of();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lat", lat)
+                .addValue("lon", lon)
+                .addValue("minLat", area.minLat())
+                .addValue("maxLat", area.maxLat())
+                .addValue("minLon", area.minLon())
+                .addValue("maxLon", area.maxLon())
+                .addValue("limit", limit);
+
+        List<String> conditions = new ArrayList<>();
+        conditions.add(cells(area, params));
+        if (request.from() != null) {
+            conditions.add("AND e.event_time >= :from");
+            params.addValue("from", request.from());
+        }
+        if (request.to() != null) {
+            conditions.add("AND e.event_time < :to");
+            params.addValue("to", request.to());
+        }
+        if (request.radiusKm() != null) {
+            conditions.add("AND " + DISTANCE + " <= :radius");
+            params.addValue("radius", request.radiusKm());
+        }
+
+        return jdbcTemplate.query(SEARCH.formatted(DISTANCE, String.join("\n", conditions)), params,
+                (rs, rowNum) -> new Match(rs.getLong("id"), rs.getDouble("distance")));
+    }
+
+    public static void requireCoordinates(double lat, double lon) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new BadRequestException("Coordinates out of range: " + lat + ", " + lon);
+        }
+    }
+
+    private Area box(NearbyEventsRequest request) {
+        if (request.minLat() == null || request.minLon() == null || request.maxLat() == null || request.maxLon() == null) {
+            throw new BadRequestException("minLat, minLon, maxLat and maxLon must be given together");
+        }
+        requireCoordinates(request.minLat(), request.minLon());
+        requireCoordinates(request.maxLat(), request.maxLon());
+        if (request.minLat() > request.maxLat() || request.minLon() > request.maxLon()) {
+            throw new BadRequestException("Bounding box minimum must not exceed maximum");
+        }
+
+        Area box = new Area(request.minLat(), request.minLon(), request.maxLat(), request.maxLon());
+        double centerLat = (box.minLat() + box.maxLat()) / 2;
+        double centerLon = (box.minLon() + box.maxLon()) / 2;
+        if (distanceKm(centerLat, centerLon, box.maxLat(), box.maxLon()) > maxRadiusKm
+                || distanceKm(centerLat, centerLon, box.minLat(), box.minLon()) > maxRadiusKm) {
+            throw new BadRequestException("Bounding box must fit within " + maxRadiusKm + " km of its center");
+        }
+        return box;
+    }
+
+    // Прямоугольник, описанный вокруг круга. У полюса и у линии перемены дат берётся вся долгота:
+    // лишние строки отсекает проверка радиуса
+    private static Area around(double lat, double lon, double radiusKm) {
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        double dLat = Math.toDegrees(angular);
+        double minLat = lat - dLat;
+        double maxLat = lat + dLat;
+        if (minLat <= -90 || maxLat >= 90) {
+            return new Area(Math.max(minLat, -90), -180, Math.min(maxLat, 90), 180);
+        }
+
+        double dLon = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(lat))));
+        if (lon - dLon < -180 || lon + dLon > 180) {
+            return new Area(minLat, -180, maxLat, 180);
+        }
+        return new Area(minLat, lon - dLon, maxLat, lon + dLon);
+    }
+
+    // Префикс ячейки p задаёт диапазон [p, p~): в collate "C" '~' больше любого символа base32
+    private static String cells(Area area, MapSqlParameterSource params) {
+        List<String> cells = Geohash.cover(area.minLat(), area.minLon(), area.maxLat(), area.maxLon(), MAX_CELLS);
+        if (cells.isEmpty()) {
+            return "";
+        }
+
+        List<String> ranges = new ArrayList<>(cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            ranges.add("e.geohash >= :cell" + i + " AND e.geohash < :cellEnd" + i);
+            params.addValue("cell" + i, cells.get(i));
+            params.addValue("cellEnd" + i, cells.get(i) + "~");
+        }
+        return "AND (" + String.join(" OR ", ranges) + ")";
+    }
+
+    private static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double h = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1, h)));
+    }
+
+    private record Area(double minLat, double minLon, double maxLat, double maxLon) {
+
+        Area intersect(Area other) {
+            return new Area(Math.max(minLat, other.minLat), Math.max(minLon, other.minLon),
+                    Math.min(maxLat, other.maxLat), Math.min(maxLon, other.maxLon));
+        }
+
+        boolean isEmpty() {
+            return minLat > maxLat || minLon > maxLon;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.services.likes;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// Write-behind буфер лайков: клики копятся в Redis и пачками сбрасываются в Postgres (LikeFlushService)
+@Component
+@RequiredArgsConstructor
+public class LikeBuffer {
+
+    // KEYS: pending, flushing, delta, flushing-delta, dirty; ARGV: userId, id, желаемое состояние, состояние в БД ('' — неизвестно).
+    // Возвращает nil, если состояние пользователя неизвестно и его нужно прочитать из БД
+    private static final RedisScript<Long> FLIP = RedisScript.of("""
+            local current = redis.call('HGET', KEYS[1], ARGV[1])
+            if not current then current = redis.call('HGET', KEYS[2], ARGV[1]) end
+            if not current then
+                if ARGV[4] == '' then return nil end
+                current = ARGV[4]
+            end
+            if current ~= ARGV[3] then
+                redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+                redis.call('HINCRBY', KEYS[3], ARGV[2], ARGV[3] == '1' and 1 or -1)
+                redis.call('SADD', KEYS[5], ARGV[2])
+            end
+            return tonumber(redis.call('HGET', KEYS[3], ARGV[2]) or '0')
+                + tonumber(redis.call('HGET', KEYS[4], ARGV[2]) or '0')
+            """, Long.class);
+
+    // KEYS: pending, flushing, delta, flushing-delta, dirty, inflight, lease; ARGV: id, токен, срок аренды в мс.
+    // Переносит pending во flushing вместе с его дельтой; недосброшенный снимок не перезаписывается.
+    // Снимок пишет только узел, взявший аренду: чужой снимок переигрывается после истечения её срока
+    private static final RedisScript<Long> BEGIN_FLUSH = RedisScript.of("""
+            if not redis.call('SET', KEYS[7], ARGV[2], 'NX', 'PX', ARGV[3]) then return 0 end
+            if redis.call('EXISTS', KEYS[2]) == 1 then return 1 end
+            redis.call('SREM', KEYS[5], ARGV[1])
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                redis.call('DEL', KEYS[7])
+                return 0
+            end
+            redis.call('RENAME', KEYS[1], KEYS[2])
+            redis.call('HSET', KEYS[4], ARGV[1], redis.call('HGET', KEYS[3], ARGV[1]) or '0')
+            redis.call('HDEL', KEYS[3], ARGV[1])
+            redis.call('SADD', KEYS[6], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS: flushing, flushing-delta, inflight, lease; ARGV: id, токен.
+    // Аренда истекла и перешла к другому узлу — снимок остаётся ему
+    private static final RedisScript<Long> FINISH_FLUSH = RedisScript.of("""
+            if redis.call('GET', KEYS[4]) ~= ARGV[2] then return 0 end
+            redis.call('DEL', KEYS[1], KEYS[4])
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            return redis.call('SREM', KEYS[3], ARGV[1])
+            """, Long.class);
+
+    // KEYS: lease; ARGV: токен
+    private static final RedisScript<Long> RELEASE_FLUSH = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${likes.write-behind.lease:PT1M}")
+    private Duration lease;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Записывает намерение пользователя и возвращает разницу счётчика относительно like_count в БД.
+    // persistedLiked читается из БД, только если Redis ещё ничего не знает об этом пользователе
+    public long setLiked(LikeTarget target, Long id, UUID userId, boolean liked, BooleanSupplier persistedLiked) {
+        Long delta = flip(target, id, userId, liked, "");
+        if (delta == null) {
+            delta = flip(target, id, userId, liked, persistedLiked.getAsBoolean() ? "1" : "0");
+        }
+        return delta;
+    }
+
+    // Флаги и счётчики для страницы одним конвейером запросов к Redis
+    public LikeOverlay overlay(LikeTarget target, List<Long> ids, UUID userId, Set<Long> persistedLikedIds) {
+        if (!enabled || ids.isEmpty()) {
+            return new LikeOverlay(persistedLikedIds, Map.of());
+        }
+
+        String user = userId.toString();
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Long id : ids) {
+                redis.hGet(target.pendingKey(id), user);
+                redis.hGet(target.flushingKey(id), user);
+                redis.hGet(target.deltaKey(), id.toString());
+                redis.hGet(target.flushingDeltaKey(), id.toString());
+            }
+            return null;
+        });
+
+        Set<Long> likedIds = new HashSet<>(persistedLikedIds);
+        Map<Long, Long> countDeltas = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Object state = values.get(4 * i) != null ? values.get(4 * i) : values.get(4 * i + 1);
+            if ("1".equals(state)) {
+                likedIds.add(id);
+            } else if ("0".equals(state)) {
+                likedIds.remove(id);
+            }
+
+            long delta = toLong(values.get(4 * i + 2)) + toLong(values.get(4 * i + 3));
+            if (delta != 0) {
+                countDeltas.put(id, delta);
+            }
+        }
+        return new LikeOverlay(likedIds, countDeltas);
+    }
+
+    Set<Long> inflightIds(LikeTarget target) {
+        return toIds(redisTemplate.opsForSet().members(target.inflightKey()));
+    }
+
+    Set<Long> dirtyIds(LikeTarget target, int limit) {
+        return toIds(redisTemplate.opsForSet().distinctRandomMembers(target.dirtyKey(), limit));
+    }
+
+    // true — аренда взята и во flushing лежит снимок, который нужно записать в БД
+    boolean beginFlush(LikeTarget target, Long id, String token) {
+        Long result = redisTemplate.execute(BEGIN_FLUSH,
+                List.of(target.pendingKey(id), target.flushingKey(id), target.deltaKey(),
+                        target.flushingDeltaKey(), target.dirtyKey(), target.inflightKey(), target.leaseKey(id)),
+                id.toString(), token, String.valueOf(lease.toMillis()));
+        return result != null && result == 1;
+    }
+
+    // userId -> true (лайк) / false (снятие лайка)
+    Map<UUID, Boolean> flushingIntents(LikeTarget target, Long id) {
+        return redisTemplate.<String, String>opsForHash().entries(target.flushingKey(id)).entrySet().stream()
+                .collect(Collectors.toMap(e -> UUID.fromString(e.getKey()), e -> "1".equals(e.getValue())));
+    }
+
+    void finishFlush(LikeTarget target, Long id, String token) {
+        redisTemplate.execute(FINISH_FLUSH,
+                List.of(target.flushingKey(id), target.flushingDeltaKey(), target.inflightKey(), target.leaseKey(id)),
+                id.toString(), token);
+    }
+
+    // Снимок остаётся во flushing и переигрывается следующим сбросом
+    void releaseFlush(LikeTarget target, Long id, String token) {
+        redisTemplate.execute(RELEASE_FLUSH, List.of(target.leaseKey(id)), token);
+    }
+
+    private Long flip(LikeTarget target, Long id, UUID userId, boolean liked, String persistedState) {
+        return redisTemplate.execute(FLIP,
+                List.of(target.pendingKey(id), target.flushingKey(id), target.deltaKey(),
+                        target.flushingDeltaKey(), target.dirtyKey()),
+                userId.toString(), id.toString(), liked ? "1" : "0", persistedState);
+    }
+
+    private static Set<Long> toIds(Set<String> members) {
+        if (members == null) {
+            return Set.of();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+}
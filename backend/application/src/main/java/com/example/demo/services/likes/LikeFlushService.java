@@ -0,0 +1,114 @@
+package com.example.demo.services.likes;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.repositories.EventRepository;
+import com.example.demo.repositories.ProjectRepository;
+import com.example.demo.services.cache.DetailCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Сбрасывает накопленные в Redis лайки в join-таблицы. Запись в БД идемпотентна
+// (ON CONFLICT DO NOTHING / DELETE), а счётчик сдвигается на реально затронутые строки,
+// поэтому снимок, оставшийся после падения, можно безопасно записать повторно
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "likes.write-behind.enabled", havingValue = "true")
+public class LikeFlushService {
+
+    private final LikeBuffer likeBuffer;
+    private final EventRepository eventRepository;
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DetailCache detailCache;
+
+    @Value("${likes.write-behind.batch-size:100}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayInflight() {
+        for (LikeTarget target : LikeTarget.values()) {
+            Set<Long> inflight = likeBuffer.inflightIds(target);
+            if (!inflight.isEmpty()) {
+                log.info("Replaying {} unfinished {} like flushes", inflight.size(), target);
+                flush(target, inflight);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval:PT5S}")
+    public void flush() {
+        for (LikeTarget target : LikeTarget.values()) {
+            flush(target, likeBuffer.inflightIds(target));
+
+            Set<Long> dirty;
+            do {
+                dirty = likeBuffer.dirtyIds(target, batchSize);
+                flush(target, dirty);
+            } while (dirty.size() == batchSize);
+        }
+    }
+
+    private void flush(LikeTarget target, Collection<Long> ids) {
+        String token = UUID.randomUUID().toString();
+        Map<Long, Map<UUID, Boolean>> snapshots = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (likeBuffer.beginFlush(target, id, token)) {
+                snapshots.put(id, likeBuffer.flushingIntents(target, id));
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    snapshots.forEach((id, intents) -> apply(target, id, intents)));
+        } catch (RuntimeException e) {
+            snapshots.keySet().forEach(id -> likeBuffer.releaseFlush(target, id, token));
+            throw e;
+        }
+
+        snapshots.keySet().forEach(id -> {
+            likeBuffer.finishFlush(target, id, token);
+            detailCache.invalidate(target == LikeTarget.EVENT ? DetailCache.EVENT : DetailCache.PROJECT, id);
+        });
+    }
+
+    private void apply(LikeTarget target, Long id, Map<UUID, Boolean> intents) {
+        Map<Boolean, Set<UUID>> byState = intents.entrySet().stream()
+                .collect(Collectors.partitioningBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toSet())));
+        Set<UUID> liked = byState.get(true);
+        Set<UUID> unliked = byState.get(false);
+
+        int delta = switch (target) {
+            case EVENT -> (liked.isEmpty() ? 0 : eventRepository.insertLikes(id, liked))
+                    - (unliked.isEmpty() ? 0 : eventRepository.deleteLikes(id, unliked));
+            case PROJECT -> (liked.isEmpty() ? 0 : projectRepository.insertLikes(id, liked))
+                    - (unliked.isEmpty() ? 0 : projectRepository.deleteLikes(id, unliked));
+        };
+
+        if (delta != 0) {
+            switch (target) {
+                case EVENT -> eventRepository.adjustLikeCount(id, delta);
+                case PROJECT -> projectRepository.adjustLikeCount(id, delta);
+            }
+        }
+    }
+}
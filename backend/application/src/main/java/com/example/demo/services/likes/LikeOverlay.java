@@ -0,0 +1,11 @@
+package com.example.demo.services.likes;
+
+import java.util.Map;
+import java.util.Set;
+
+// Состояние лайков для страницы: флаги из БД с поправкой на ещё не сброшенные из Redis изменения
+public record LikeOverlay(
+    Set<Long> likedIds,
+    Map<Long, Long> countDeltas
+) {
+}
@@ -0,0 +1,47 @@
+package com.example.demo.services.likes;
+
+// Сущности, лайки которых можно буферизовать в Redis
+public enum LikeTarget {
+    EVENT("event"),
+    PROJECT("project");
+
+    private final String keyPrefix;
+
+    LikeTarget(String name) {
+        this.keyPrefix = "likes:" + name + ":";
+    }
+
+    // Намерения пользователей (userId -> 1/0), ещё не записанные в Postgres
+    String pendingKey(Long id) {
+        return keyPrefix + "pending:" + id;
+    }
+
+    // Снимок pending, который сейчас пишется в Postgres
+    String flushingKey(Long id) {
+        return keyPrefix + "flushing:" + id;
+    }
+
+    // id -> разница счётчика относительно like_count в БД
+    String deltaKey() {
+        return keyPrefix + "delta";
+    }
+
+    String flushingDeltaKey() {
+        return keyPrefix + "flushing-delta";
+    }
+
+    // id с непустым pending
+    String dirtyKey() {
+        return keyPrefix + "dirty";
+    }
+
+    // id, чей снимок перенесён во flushing, но ещё не подтверждён — переигрываются после падения
+    String inflightKey() {
+        return keyPrefix + "inflight";
+    }
+
+    // Аренда снимка: токен узла, который сейчас пишет его в Postgres
+    String leaseKey(Long id) {
+        return keyPrefix + "lease:" + id;
+    }
+}
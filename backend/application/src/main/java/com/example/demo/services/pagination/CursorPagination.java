@@ -0,0 +1,132 @@
+package com.example.demo.services.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dtos.page.CursorPage;
+import com.example.demo.exception.exceptions.BadRequestException;
+
+@Component
+public class CursorPagination {
+
+    public static final String SORT_KEY = "id";
+    public static final Sort SORT = Sort.by(Sort.Direction.ASC, SORT_KEY);
+
+    @Value("${pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    public int resolveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    // Запрашиваем на одну строку больше лимита, чтобы понять, есть ли следующая страница
+    public <E> CursorPage<E> slice(List<E> rows, int limit, Function<E, ?> keyExtractor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<E> items = rows.subList(0, limit);
+        String nextCursor = encode(keyExtractor.apply(items.get(limit - 1)));
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    public Long decodeLong(String cursor) {
+        String key = decode(cursor);
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // Курсор ранжированной выдачи: позиция последнего элемента по (rank, id)
+    public record RankedKey(float rank, String id) {
+
+        @Override
+        public String toString() {
+            return rank + ":" + id;
+        }
+    }
+
+    public RankedKey decodeRanked(String cursor) {
+        String key = decode(cursor);
+        if (key == null) {
+            return null;
+        }
+        int separator = key.indexOf(':');
+        try {
+            return new RankedKey(Float.parseFloat(key.substring(0, separator)), key.substring(separator + 1));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // Курсор хронологической выдачи: позиция последнего элемента по (time, id)
+    public record TimeKey(LocalDateTime time, Long id) {
+
+        @Override
+        public String toString() {
+            return time + "," + id;
+        }
+    }
+
+    public TimeKey decodeTime(String cursor) {
+        String key = decode(cursor);
+        if (key == null) {
+            return null;
+        }
+        int separator = key.indexOf(',');
+        try {
+            return new TimeKey(LocalDateTime.parse(key.substring(0, separator)), Long.valueOf(key.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public UUID decodeUuid(String cursor) {
+        String key = decode(cursor);
+        if (key == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(key);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private String encode(Object key) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.services.pagination;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+// Страница ключей по спецификации: запрос выбирает только id в порядке CursorPagination.SORT,
+// сущности не загружаются и в контекст персистентности не попадают
+@Component
+@RequiredArgsConstructor
+public class IdPage {
+
+    private final EntityManager entityManager;
+
+    public <T, K> List<K> find(Class<T> entityType, Class<K> idType, Specification<T> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<K> query = cb.createQuery(idType);
+        Root<T> root = query.from(entityType);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.<K>get(CursorPagination.SORT_KEY))
+                .orderBy(QueryUtils.toOrders(CursorPagination.SORT, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo.services.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Разреженная матрица «объект → объект» по числу пользователей, взаимодействовавших с обоими.
+// Для каждого объекта хранятся только K соседей с лучшей косинусной мерой
+// count / sqrt(deg(a) * deg(b)), поэтому память растёт как O(объекты * K); при пересборке
+// сверх этого — счётчики одной порции объектов (см. rebuild)
+class CoOccurrenceIndex {
+
+    record Neighbor(long id, double score) {
+    }
+
+    // Строка матрицы неизменяема и заменяется целиком
+    private record Row(int degree, long[] ids, float[] counts) {
+
+        static final Row EMPTY = new Row(0, new long[0], new float[0]);
+
+        int indexOf(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // Пар «объект — объект» на одну порцию пересборки по умолчанию: около 50 МБ счётчиков
+    static final long PARTITION_PAIRS = 2_000_000;
+
+    private final int neighbors;
+    private final int maxUserItems;
+    private final long partitionPairs;
+    private volatile Map<Long, Row> rows = new ConcurrentHashMap<>();
+
+    CoOccurrenceIndex(int neighbors, int maxUserItems) {
+        this(neighbors, maxUserItems, PARTITION_PAIRS);
+    }
+
+    CoOccurrenceIndex(int neighbors, int maxUserItems, long partitionPairs) {
+        this.neighbors = neighbors;
+        this.maxUserItems = maxUserItems;
+        this.partitionPairs = partitionPairs;
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    // На входе — различные объекты каждого пользователя. Пользователи с очень длинной историей
+    // учитываются только в степени объектов: их пары дают квадратичный рост и мало сигнала.
+    // Полная матрица пар не строится: объекты делятся на порции по id так, чтобы в порции было
+    // в среднем не больше partitionPairs пар; для каждой порции пользователи просматриваются заново,
+    // строки порции сразу обрезаются до K соседей, а счётчики отбрасываются
+    void rebuild(List<long[]> userItems) {
+        LongFloatMap degrees = new LongFloatMap();
+        long pairs = 0;
+        for (long[] items : userItems) {
+            for (long item : items) {
+                degrees.add(item, 1);
+            }
+            if (hasPairs(items)) {
+                pairs += (long) items.length * (items.length - 1);
+            }
+        }
+
+        int partitions = (int) Math.max(1, (pairs + partitionPairs - 1) / partitionPairs);
+        Map<Long, Row> newRows = new ConcurrentHashMap<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            Map<Long, LongFloatMap> counts = new HashMap<>();
+            for (long[] items : userItems) {
+                if (!hasPairs(items)) {
+                    continue;
+                }
+                for (long item : items) {
+                    if (Math.floorMod(item, partitions) != partition) {
+                        continue;
+                    }
+                    LongFloatMap row = counts.computeIfAbsent(item, id -> new LongFloatMap());
+                    for (long other : items) {
+                        if (other != item) {
+                            row.add(other, 1);
+                        }
+                    }
+                }
+            }
+            counts.forEach((item, row) ->
+                    newRows.put(item, topNeighbors(item, (int) degrees.get(item), row, degrees)));
+        }
+        degrees.forEach((item, degree) ->
+                newRows.computeIfAbsent(item, id -> topNeighbors(item, (int) degree, null, degrees)));
+        // Точечные изменения, пришедшие во время пересборки, теряются до следующей пересборки
+        rows = newRows;
+    }
+
+    private boolean hasPairs(long[] items) {
+        return items.length >= 2 && items.length <= maxUserItems;
+    }
+
+    // Пользователь начал (delta = 1) или перестал (delta = -1) взаимодействовать с item;
+    // others — остальные его объекты
+    void apply(long item, long[] others, int delta) {
+        Map<Long, Row> current = rows;
+        boolean pairs = others.length + 1 <= maxUserItems;
+
+        current.compute(item, (id, row) -> {
+            Row base = row != null ? row : Row.EMPTY;
+            Row updated = new Row(Math.max(0, base.degree() + delta), base.ids(), base.counts());
+            if (pairs) {
+                for (long other : others) {
+                    updated = adjust(updated, other, delta);
+                }
+            }
+            return updated;
+        });
+
+        if (pairs) {
+            for (long other : others) {
+                current.compute(other, (id, row) -> adjust(row != null ? row : Row.EMPTY, item, delta));
+            }
+        }
+    }
+
+    List<Neighbor> similarTo(long item, int k) {
+        Map<Long, Row> current = rows;
+        Row row = current.get(item);
+        if (row == null || k <= 0) {
+            return List.of();
+        }
+
+        List<Neighbor> result = new ArrayList<>(row.ids().length);
+        for (int i = 0; i < row.ids().length; i++) {
+            Row neighbor = current.get(row.ids()[i]);
+            int degree = neighbor != null ? neighbor.degree() : 1;
+            result.add(new Neighbor(row.ids()[i], cosine(row.counts()[i], row.degree(), degree)));
+        }
+        result.sort(Comparator.comparingDouble(Neighbor::score).reversed()
+                .thenComparingLong(Neighbor::id));
+        return result.size() > k ? result.subList(0, k) : result;
+    }
+
+    private Row topNeighbors(long item, int degree, LongFloatMap counts, LongFloatMap degrees) {
+        if (counts == null) {
+            return new Row(degree, new long[0], new float[0]);
+        }
+
+        long[] ids = new long[counts.size()];
+        float[] values = new float[counts.size()];
+        double[] scores = new double[counts.size()];
+        int[] n = {0};
+        counts.forEach((other, count) -> {
+            ids[n[0]] = other;
+            values[n[0]] = count;
+            scores[n[0]] = cosine(count, degree, (int) degrees.get(other));
+            n[0]++;
+        });
+
+        PriorityQueue<Integer> best = new PriorityQueue<>(neighbors + 1,
+                Comparator.<Integer>comparingDouble(i -> scores[i]).thenComparing(i -> -ids[i]));
+        for (int i = 0; i < ids.length; i++) {
+            best.offer(i);
+            if (best.size() > neighbors) {
+                best.poll();
+            }
+        }
+
+        long[] topIds = new long[best.size()];
+        float[] topCounts = new float[best.size()];
+        for (int i = 0; !best.isEmpty(); i++) {
+            int index = best.poll();
+            topIds[i] = ids[index];
+            topCounts[i] = values[index];
+        }
+        return new Row(degree, topIds, topCounts);
+    }
+
+    // Новый сосед попадает в строку, только пока в ней есть место; вытеснение — при пересборке
+    private Row adjust(Row row, long neighbor, int delta) {
+        int index = row.indexOf(neighbor);
+        if (index >= 0) {
+            float count = row.counts()[index] + delta;
+            if (count > 0) {
+                float[] counts = row.counts().clone();
+                counts[index] = count;
+                return new Row(row.degree(), row.ids(), counts);
+            }
+            long[] ids = new long[row.ids().length - 1];
+            float[] counts = new float[ids.length];
+            System.arraycopy(row.ids(), 0, ids, 0, index);
+            System.arraycopy(row.ids(), index + 1, ids, index, ids.length - index);
+            System.arraycopy(row.counts(), 0, counts, 0, index);
+            System.arraycopy(row.counts(), index + 1, counts, index, counts.length - index);
+            return new Row(row.degree(), ids, counts);
+        }
+
+        if (delta <= 0 || row.ids().length >= neighbors) {
+            return row;
+        }
+        long[] ids = Arrays.copyOf(row.ids(), row.ids().length + 1);
+        float[] counts = Arrays.copyOf(row.counts(), ids.length);
+        ids[ids.length - 1] = neighbor;
+        counts[counts.length - 1] = delta;
+        return new Row(row.degree(), ids, counts);
+    }
+
+    private static double cosine(float count, int degree, int otherDegree) {
+        return count / Math.sqrt(Math.max(1, degree) * (double) Math.max(1, otherDegree));
+    }
+}
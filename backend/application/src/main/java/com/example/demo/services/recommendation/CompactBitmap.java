@@ -0,0 +1,79 @@
+package com.example.demo.services.recommendation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+// Множество неотрицательных int: пока элементов мало — отсортированный массив,
+// при росте — битовая карта (тот же выбор контейнера, что в Roaring, но на один уровень)
+final class CompactBitmap {
+
+    private static final int ARRAY_LIMIT = 4096;
+
+    private int[] array = new int[4];
+    private int size;
+    private BitSet bits;
+
+    int cardinality() {
+        return bits != null ? bits.cardinality() : size;
+    }
+
+    boolean contains(int value) {
+        if (bits != null) {
+            return bits.get(value);
+        }
+        return Arrays.binarySearch(array, 0, size, value) >= 0;
+    }
+
+    void add(int value) {
+        if (bits != null) {
+            bits.set(value);
+            return;
+        }
+
+        int index = Arrays.binarySearch(array, 0, size, value);
+        if (index >= 0) {
+            return;
+        }
+        if (size == ARRAY_LIMIT) {
+            // forEach читает массив, пока bits не назначен
+            BitSet converted = new BitSet();
+            forEach(converted::set);
+            converted.set(value);
+            bits = converted;
+            array = null;
+            return;
+        }
+
+        int insertAt = -index - 1;
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.min(ARRAY_LIMIT, size * 2));
+        }
+        System.arraycopy(array, insertAt, array, insertAt + 1, size - insertAt);
+        array[insertAt] = value;
+        size++;
+    }
+
+    void remove(int value) {
+        if (bits != null) {
+            bits.clear(value);
+            return;
+        }
+
+        int index = Arrays.binarySearch(array, 0, size, value);
+        if (index >= 0) {
+            System.arraycopy(array, index + 1, array, index, size - index - 1);
+            size--;
+        }
+    }
+
+    void forEach(IntConsumer consumer) {
+        if (bits != null) {
+            bits.stream().forEach(consumer);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            consumer.accept(array[i]);
+        }
+    }
+}
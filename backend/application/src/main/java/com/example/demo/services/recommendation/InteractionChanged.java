@@ -0,0 +1,7 @@
+package com.example.demo.services.recommendation;
+
+import java.util.UUID;
+
+// Пользователь лайкнул объект или стал участником (added), либо отменил это
+public record InteractionChanged(ItemChanged.Kind kind, Long itemId, UUID userId, boolean added) {
+}
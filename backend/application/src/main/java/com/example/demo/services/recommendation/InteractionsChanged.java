@@ -0,0 +1,8 @@
+package com.example.demo.services.recommendation;
+
+import java.util.List;
+import java.util.UUID;
+
+// Пачка пользователей разом стала участниками объекта (added) или перестала ими быть
+public record InteractionsChanged(ItemChanged.Kind kind, Long itemId, List<UUID> userIds, boolean added) {
+}
@@ -0,0 +1,10 @@
+package com.example.demo.services.recommendation;
+
+// Публикуется сервисами после создания, изменения или удаления события или проекта
+public record ItemChanged(Kind kind, Long id) {
+
+    public enum Kind {
+        EVENT,
+        PROJECT
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.services.recommendation;
+
+import java.util.List;
+
+// Публикуется один раз на пачку созданных объектов: индексы дочитывают их одним запросом
+public record ItemsChanged(ItemChanged.Kind kind, List<Long> ids) {
+}
@@ -0,0 +1,85 @@
+package com.example.demo.services.recommendation;
+
+// Открытая адресация с линейным пробированием: long-ключи и float-значения без упаковки в объекты.
+// Ключ 0 зарезервирован под пустую ячейку — id в БД положительные
+final class LongFloatMap {
+
+    @FunctionalInterface
+    interface Consumer {
+        void accept(long key, float value);
+    }
+
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private float[] values;
+    private int size;
+
+    LongFloatMap() {
+        this(8);
+    }
+
+    LongFloatMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new float[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    float get(long key) {
+        int slot = find(keys, key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    void add(long key, float delta) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int slot = find(keys, key);
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return;
+        }
+
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 4 > keys.length * 3) {
+            grow();
+        }
+    }
+
+    void forEach(Consumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new float[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Ячейка с ключом или первая пустая на пути пробирования
+    private static int find(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.demo.services.recommendation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// MinHash-подписи множеств с LSH-бакетами по полосам. Кандидаты — только профили, совпавшие
+// с запросом хотя бы в одной полосе (при 32 полосах по 4 строки порог около 0.42),
+// сходство по Жаккару оценивается долей совпавших минимумов
+class MinHashIndex {
+
+    static final int HASHES = 128;
+    static final int ROWS = 4;
+    static final int BANDS = HASHES / ROWS;
+
+    record Features(UUID id, Set<String> tokens) {
+    }
+
+    record Similar(UUID id, double similarity) {
+    }
+
+    private final long[] seeds = new SplittableRandom(0x5EEDL).longs(HASHES).toArray();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<UUID, int[]> signatures = new HashMap<>();
+    private List<Map<Long, Set<UUID>>> buckets = emptyBuckets();
+    // Изменения, пришедшие во время пересборки: накладываются поверх нового снимка
+    private Map<UUID, Optional<int[]>> changedDuringRebuild;
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void replaceAll(Collection<Features> snapshot) {
+        Map<UUID, int[]> newSignatures = new HashMap<>(snapshot.size() * 2);
+        List<Map<Long, Set<UUID>>> newBuckets = emptyBuckets();
+        for (Features features : snapshot) {
+            int[] signature = signature(features.tokens());
+            if (signature != null) {
+                index(newSignatures, newBuckets, features.id(), signature);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.forEach((id, change) -> {
+                    unindex(newSignatures, newBuckets, id);
+                    change.ifPresent(signature -> index(newSignatures, newBuckets, id, signature));
+                });
+                changedDuringRebuild = null;
+            }
+            signatures = newSignatures;
+            buckets = newBuckets;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Профиль без навыков и интересов не индексируется: сравнивать его не с чем
+    void put(Features features) {
+        int[] signature = signature(features.tokens());
+        if (signature == null) {
+            remove(features.id());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            unindex(signatures, buckets, features.id());
+            index(signatures, buckets, features.id(), signature);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(features.id(), Optional.of(signature));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            unindex(signatures, buckets, id);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(id, Optional.empty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Лучшие k по оценке сходства, без самого профиля
+    List<Similar> similarTo(UUID id, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        Comparator<Similar> worstFirst = Comparator.comparingDouble(Similar::similarity)
+                .thenComparing(Similar::id, Comparator.reverseOrder());
+        PriorityQueue<Similar> heap = new PriorityQueue<>(k + 1, worstFirst);
+
+        lock.readLock().lock();
+        try {
+            int[] query = signatures.get(id);
+            if (query == null) {
+                return List.of();
+            }
+
+            Set<UUID> candidates = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                candidates.addAll(buckets.get(band).getOrDefault(bandKey(query, band), Set.of()));
+            }
+            candidates.remove(id);
+
+            for (UUID candidate : candidates) {
+                heap.offer(new Similar(candidate, estimate(query, signatures.get(candidate))));
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Similar> ranked = new ArrayList<>(heap);
+        ranked.sort(worstFirst.reversed());
+        return ranked;
+    }
+
+    private int[] signature(Set<String> tokens) {
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String token : tokens) {
+            long hash = hash(token);
+            for (int i = 0; i < HASHES; i++) {
+                int value = (int) (mix(hash ^ seeds[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    private static void index(Map<UUID, int[]> signatures, List<Map<Long, Set<UUID>>> buckets,
+                              UUID id, int[] signature) {
+        signatures.put(id, signature);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void unindex(Map<UUID, int[]> signatures, List<Map<Long, Set<UUID>>> buckets, UUID id) {
+        int[] previous = signatures.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            Map<Long, Set<UUID>> bandBuckets = buckets.get(band);
+            long key = bandKey(previous, band);
+            Set<UUID> ids = bandBuckets.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                bandBuckets.remove(key);
+            }
+        }
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = mix(key * 31 + signature[row]);
+        }
+        return key;
+    }
+
+    private static List<Map<Long, Set<UUID>>> emptyBuckets() {
+        List<Map<Long, Set<UUID>>> buckets = new ArrayList<>(BANDS);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+        return buckets;
+    }
+
+    // FNV-1a по UTF-8 байтам
+    private static long hash(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : token.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Финализатор SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
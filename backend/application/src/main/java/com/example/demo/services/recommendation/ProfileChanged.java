@@ -0,0 +1,7 @@
+package com.example.demo.services.recommendation;
+
+import java.util.UUID;
+
+// Публикуется после создания, изменения или удаления профиля
+public record ProfileChanged(UUID id) {
+}
@@ -0,0 +1,204 @@
+package com.example.demo.services.recommendation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.exception.exceptions.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Готовые списки рекомендаций активных пользователей в Redis: строка id через запятую на
+// пользователя и тип. Фоновая задача пересчитывает списки всех, кто заходил за последнее
+// active-window; при промахе список считается по запросу и сохраняется
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecommendationLists {
+
+    private static final String ACTIVE_USERS_KEY = "recommendations:active";
+    private static final int REFRESH_CHUNK = 200;
+
+    private enum Kind {
+        EVENTS,
+        PROJECTS,
+        PROFILES;
+
+        String key(UUID userId) {
+            return "recommendations:" + name().toLowerCase() + ":" + userId;
+        }
+    }
+
+    private final RecommendationService recommendationService;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendations.materialized.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recommendations.materialized.size:100}")
+    private int size;
+
+    @Value("${recommendations.materialized.ttl:PT1H}")
+    private Duration ttl;
+
+    @Value("${recommendations.materialized.active-window:P7D}")
+    private Duration activeWindow;
+
+    public List<Long> events(UUID userId, int limit) {
+        return get(Kind.EVENTS, userId, limit, Long::valueOf, recommendationService::recommendEvents);
+    }
+
+    public List<Long> projects(UUID userId, int limit) {
+        return get(Kind.PROJECTS, userId, limit, Long::valueOf, recommendationService::recommendProjects);
+    }
+
+    public List<UUID> profiles(UUID userId, int limit) {
+        return get(Kind.PROFILES, userId, limit, UUID::fromString, recommendationService::recommendProfiles);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendations.materialized.refresh-interval:PT5M}",
+            initialDelayString = "${recommendations.materialized.refresh-interval:PT5M}"
+    )
+    public void refreshActiveUsers() {
+        if (!enabled || !recommendationService.isReady()) {
+            return;
+        }
+
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(ACTIVE_USERS_KEY, 0,
+                    Instant.now().minus(activeWindow).toEpochMilli());
+
+            long refreshed = 0;
+            for (long start = 0; ; start += REFRESH_CHUNK) {
+                Set<String> users = redisTemplate.opsForZSet().range(ACTIVE_USERS_KEY, start, start + REFRESH_CHUNK - 1);
+                if (users == null || users.isEmpty()) {
+                    break;
+                }
+                for (String user : users) {
+                    refresh(UUID.fromString(user));
+                }
+                refreshed += users.size();
+            }
+            log.debug("Recommendation lists refreshed for {} active users", refreshed);
+        } catch (RuntimeException e) {
+            log.warn("Recommendation lists refresh failed: {}", e.getMessage());
+        }
+    }
+
+    // Позже, чем обновление индекса профилей в RecommendationService
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChanged change) {
+        if (!enabled || !recommendationService.isReady()) {
+            return;
+        }
+        try {
+            if (redisTemplate.opsForZSet().score(ACTIVE_USERS_KEY, change.id().toString()) != null) {
+                refresh(change.id());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Recommendation lists refresh failed for {}: {}", change.id(), e.getMessage());
+        }
+    }
+
+    private <K> List<K> get(Kind kind, UUID userId, int limit, Function<String, K> parser,
+                            Computation<K> computation) {
+        if (!enabled) {
+            return computation.compute(userId, limit);
+        }
+
+        String stored = read(kind, userId);
+        if (stored != null) {
+            requests(kind, "hit");
+            return Arrays.stream(stored.split(","))
+                    .filter(id -> !id.isEmpty())
+                    .limit(limit)
+                    .map(parser)
+                    .toList();
+        }
+
+        requests(kind, "miss");
+        List<K> computed = computation.compute(userId, Math.max(size, limit));
+        // До первой сборки индексов список пустой — не сохраняем его до истечения ttl
+        if (recommendationService.isReady()) {
+            write(userId, Map.of(kind, computed));
+        }
+        return computed.stream().limit(limit).toList();
+    }
+
+    private void refresh(UUID userId) {
+        try {
+            write(userId, Map.of(
+                    Kind.EVENTS, recommendationService.recommendEvents(userId, size),
+                    Kind.PROJECTS, recommendationService.recommendProjects(userId, size),
+                    Kind.PROFILES, recommendationService.recommendProfiles(userId, size)));
+        } catch (ResourceNotFoundException e) {
+            // Профиль удалён — пользователь больше не активен
+            redisTemplate.opsForZSet().remove(ACTIVE_USERS_KEY, userId.toString());
+            redisTemplate.delete(Arrays.stream(Kind.values()).map(kind -> kind.key(userId)).toList());
+        }
+    }
+
+    // Заодно отмечает пользователя активным, чтобы фоновая задача держала его списки свежими
+    private String read(Kind kind, UUID userId) {
+        try {
+            List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.get(kind.key(userId));
+                redis.zAdd(ACTIVE_USERS_KEY, System.currentTimeMillis(), userId.toString());
+                return null;
+            });
+            return (String) values.get(0);
+        } catch (RuntimeException e) {
+            requests(kind, "error");
+            log.warn("Recommendation list lookup failed for {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(UUID userId, Map<Kind, ? extends List<?>> lists) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                lists.forEach((kind, ids) -> redis.set(kind.key(userId),
+                        ids.stream().map(String::valueOf).collect(Collectors.joining(",")),
+                        Expiration.from(ttl), SetOption.upsert()));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Recommendation list store failed for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void requests(Kind kind, String result) {
+        meterRegistry.counter("recommendations.lists.requests",
+                "kind", kind.name().toLowerCase(), "result", result).increment();
+    }
+
+    @FunctionalInterface
+    private interface Computation<K> {
+        List<K> compute(UUID userId, int limit);
+    }
+}
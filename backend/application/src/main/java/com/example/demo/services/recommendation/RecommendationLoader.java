@@ -0,0 +1,224 @@
+package com.example.demo.services.recommendation;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entities.UserStatus;
+
+import lombok.RequiredArgsConstructor;
+
+// Читает из БД только то, что нужно индексу: id, термины и атрибуты ранжирования.
+// Термины берутся из словаря terms, где они уже нормализованы
+@Component
+@RequiredArgsConstructor
+class RecommendationLoader {
+
+    private static final String EVENTS = """
+            SELECT e.id, e.event_time, e.like_count + e.participant_count AS popularity,
+                   ARRAY(SELECT d.term FROM event_tag_terms t JOIN terms d ON d.id = t.term_id WHERE t.event_id = e.id) AS terms
+            FROM events e
+            """;
+
+    private static final String PROJECTS = """
+            SELECT p.id, p.like_count + p.participant_count AS popularity,
+                   ARRAY(SELECT d.term FROM project_tag_terms t JOIN terms d ON d.id = t.term_id WHERE t.project_id = p.id) AS terms
+            FROM projects p
+            """;
+
+    private static final String PROFILES = """
+            SELECT u.id, u.star_count AS popularity,
+                   ARRAY(SELECT d.term FROM user_profile_skill_terms s JOIN terms d ON d.id = s.term_id WHERE s.user_profile_id = u.id
+                         UNION
+                         SELECT d.term FROM user_profile_interest_terms i JOIN terms d ON d.id = i.term_id WHERE i.user_profile_id = u.id) AS terms
+            FROM user_profiles u
+            """;
+
+    // Навыки и интересы — разные признаки, поэтому помечены префиксом
+    private static final String PROFILE_FEATURES = """
+            SELECT u.id,
+                   ARRAY(SELECT 's:' || d.term FROM user_profile_skill_terms s JOIN terms d ON d.id = s.term_id WHERE s.user_profile_id = u.id
+                         UNION
+                         SELECT 'i:' || d.term FROM user_profile_interest_terms i JOIN terms d ON d.id = i.term_id WHERE i.user_profile_id = u.id) AS terms
+            FROM user_profiles u
+            """;
+
+    private static final String SKILL_PROFILES = """
+            SELECT u.id, u.status,
+                   ARRAY(SELECT d.term FROM user_profile_skill_terms s JOIN terms d ON d.id = s.term_id WHERE s.user_profile_id = u.id) AS terms
+            FROM user_profiles u
+            """;
+
+    // Лайк и участие — одно взаимодействие; UNION убирает повтор, если есть оба
+    private static final String EVENT_INTERACTIONS = """
+            SELECT user_profile_id, event_id AS item_id FROM event_likes
+            UNION
+            SELECT user_profile_id, event_id FROM event_participants
+            ORDER BY user_profile_id
+            """;
+
+    private static final String PROJECT_INTERACTIONS = """
+            SELECT user_profile_id, project_id AS item_id FROM project_likes
+            UNION
+            SELECT user_profile_id, project_id FROM project_participants
+            ORDER BY user_profile_id
+            """;
+
+    // Число связей пользователя с каждым объектом: 2 — и лайк, и участие
+    private static final String USER_EVENT_RELATIONS = """
+            SELECT user_id, item_id, count(*) AS relations FROM (
+                SELECT user_profile_id AS user_id, event_id AS item_id FROM event_likes WHERE user_profile_id = ANY(?::uuid[])
+                UNION ALL
+                SELECT user_profile_id, event_id FROM event_participants WHERE user_profile_id = ANY(?::uuid[])
+            ) r
+            GROUP BY user_id, item_id
+            """;
+
+    private static final String USER_PROJECT_RELATIONS = """
+            SELECT user_id, item_id, count(*) AS relations FROM (
+                SELECT user_profile_id AS user_id, project_id AS item_id FROM project_likes WHERE user_profile_id = ANY(?::uuid[])
+                UNION ALL
+                SELECT user_profile_id, project_id FROM project_participants WHERE user_profile_id = ANY(?::uuid[])
+            ) r
+            GROUP BY user_id, item_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Прошедшие события рекомендовать не нужно, поэтому в индекс они не попадают
+    List<TermIndex.Entry<Long>> loadEvents() {
+        return jdbcTemplate.query(EVENTS + "WHERE e.event_time IS NULL OR e.event_time >= localtimestamp",
+                (rs, rowNum) -> event(rs));
+    }
+
+    Optional<TermIndex.Entry<Long>> loadEvent(Long id) {
+        return jdbcTemplate.query(EVENTS + "WHERE e.id = ?", (rs, rowNum) -> event(rs), id).stream().findFirst();
+    }
+
+    List<TermIndex.Entry<Long>> loadEvents(Collection<Long> ids) {
+        return jdbcTemplate.query(EVENTS + "WHERE e.id = ANY(?)", (rs, rowNum) -> event(rs), (Object) ids.toArray(Long[]::new));
+    }
+
+    List<TermIndex.Entry<Long>> loadProjects() {
+        return jdbcTemplate.query(PROJECTS, (rs, rowNum) -> project(rs));
+    }
+
+    Optional<TermIndex.Entry<Long>> loadProject(Long id) {
+        return jdbcTemplate.query(PROJECTS + "WHERE p.id = ?", (rs, rowNum) -> project(rs), id).stream().findFirst();
+    }
+
+    List<TermIndex.Entry<Long>> loadProjects(Collection<Long> ids) {
+        return jdbcTemplate.query(PROJECTS + "WHERE p.id = ANY(?)", (rs, rowNum) -> project(rs), (Object) ids.toArray(Long[]::new));
+    }
+
+    List<TermIndex.Entry<UUID>> loadProfiles() {
+        return jdbcTemplate.query(PROFILES, (rs, rowNum) -> profile(rs));
+    }
+
+    Optional<TermIndex.Entry<UUID>> loadProfile(UUID id) {
+        return jdbcTemplate.query(PROFILES + "WHERE u.id = ?", (rs, rowNum) -> profile(rs), id).stream().findFirst();
+    }
+
+    List<MinHashIndex.Features> loadProfileFeatures() {
+        return jdbcTemplate.query(PROFILE_FEATURES, (rs, rowNum) -> profileFeatures(rs));
+    }
+
+    Optional<MinHashIndex.Features> loadProfileFeatures(UUID id) {
+        return jdbcTemplate.query(PROFILE_FEATURES + "WHERE u.id = ?", (rs, rowNum) -> profileFeatures(rs), id)
+                .stream()
+                .findFirst();
+    }
+
+    List<SkillBitmapIndex.SkillProfile> loadSkillProfiles() {
+        return jdbcTemplate.query(SKILL_PROFILES, (rs, rowNum) -> skillProfile(rs));
+    }
+
+    Optional<SkillBitmapIndex.SkillProfile> loadSkillProfile(UUID id) {
+        return jdbcTemplate.query(SKILL_PROFILES + "WHERE u.id = ?", (rs, rowNum) -> skillProfile(rs), id)
+                .stream()
+                .findFirst();
+    }
+
+    // Различные объекты каждого пользователя; строки идут по пользователю подряд
+    List<long[]> loadInteractions(ItemChanged.Kind kind) {
+        List<long[]> users = new ArrayList<>();
+        List<Long> items = new ArrayList<>();
+        Object[] currentUser = {null};
+
+        jdbcTemplate.query(kind == ItemChanged.Kind.EVENT ? EVENT_INTERACTIONS : PROJECT_INTERACTIONS, rs -> {
+            Object user = rs.getObject("user_profile_id");
+            if (!user.equals(currentUser[0]) && !items.isEmpty()) {
+                users.add(items.stream().mapToLong(Long::longValue).toArray());
+                items.clear();
+            }
+            currentUser[0] = user;
+            items.add(rs.getLong("item_id"));
+        });
+        if (!items.isEmpty()) {
+            users.add(items.stream().mapToLong(Long::longValue).toArray());
+        }
+        return users;
+    }
+
+    // Для каждого пользователя: объект -> число связей с ним (лайк, участие). uuid[] драйвер
+    // из массива не выводит, поэтому id передаются строками
+    Map<UUID, Map<Long, Integer>> loadUserRelations(ItemChanged.Kind kind, Collection<UUID> userIds) {
+        String[] ids = userIds.stream().map(UUID::toString).toArray(String[]::new);
+        Map<UUID, Map<Long, Integer>> relations = new HashMap<>();
+        jdbcTemplate.query(kind == ItemChanged.Kind.EVENT ? USER_EVENT_RELATIONS : USER_PROJECT_RELATIONS,
+                rs -> {
+                    relations.computeIfAbsent(rs.getObject("user_id", UUID.class), user -> new HashMap<>())
+                            .put(rs.getLong("item_id"), rs.getInt("relations"));
+                }, ids, ids);
+        return relations;
+    }
+
+    private static TermIndex.Entry<Long> event(ResultSet rs) throws SQLException {
+        return new TermIndex.Entry<>(rs.getLong("id"), terms(rs), rs.getInt("popularity"),
+                rs.getObject("event_time", LocalDateTime.class));
+    }
+
+    private static TermIndex.Entry<Long> project(ResultSet rs) throws SQLException {
+        return new TermIndex.Entry<>(rs.getLong("id"), terms(rs), rs.getInt("popularity"), null);
+    }
+
+    private static TermIndex.Entry<UUID> profile(ResultSet rs) throws SQLException {
+        return new TermIndex.Entry<>(rs.getObject("id", UUID.class), terms(rs), rs.getInt("popularity"), null);
+    }
+
+    private static MinHashIndex.Features profileFeatures(ResultSet rs) throws SQLException {
+        return new MinHashIndex.Features(rs.getObject("id", UUID.class), terms(rs));
+    }
+
+    private static SkillBitmapIndex.SkillProfile skillProfile(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        return new SkillBitmapIndex.SkillProfile(rs.getObject("id", UUID.class),
+                status != null ? UserStatus.valueOf(status) : null, terms(rs));
+    }
+
+    private static Set<String> terms(ResultSet rs) throws SQLException {
+        Array array = rs.getArray("terms");
+        Set<String> terms = new HashSet<>();
+        if (array != null) {
+            for (String term : (String[]) array.getArray()) {
+                if (term != null && !term.isBlank()) {
+                    terms.add(term.trim());
+                }
+            }
+        }
+        return Set.copyOf(terms);
+    }
+}
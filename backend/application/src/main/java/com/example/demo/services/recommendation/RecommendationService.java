@@ -0,0 +1,196 @@
+package com.example.demo.services.recommendation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.dtos.card.UserProfileCard;
+import com.example.demo.exception.exceptions.ResourceNotFoundException;
+import com.example.demo.services.cache.UserProfileCards;
+import com.example.demo.services.terms.TermDictionary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Рекомендации по пересечению интересов и навыков пользователя с тегами объектов.
+// Индексы живут в памяти: полная пересборка по расписанию, точечное обновление
+// после изменения объекта. Лайки и участники влияют только на популярность и
+// подтягиваются пересборкой
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecommendationService {
+
+    private final RecommendationLoader loader;
+    private final UserProfileCards userProfileCards;
+
+    private final TermIndex<Long> events = new TermIndex<>();
+    private final TermIndex<Long> projects = new TermIndex<>();
+    private final TermIndex<UUID> profiles = new TermIndex<>();
+
+    @Value("${recommendations.weights.interest:1.0}")
+    private double interestWeight;
+
+    @Value("${recommendations.weights.skill:0.5}")
+    private double skillWeight;
+
+    @Value("${recommendations.weights.popularity:0.2}")
+    private double popularityWeight;
+
+    @Value("${recommendations.weights.upcoming:0.5}")
+    private double upcomingWeight;
+
+    @Value("${recommendations.upcoming-horizon:P14D}")
+    private Duration upcomingHorizon;
+
+    // Все индексы собраны хотя бы раз
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> recommendEvents(UUID userId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return events.topK(query(userId), limit, (entry, overlap) -> {
+            if (entry.time() != null && entry.time().isBefore(now)) {
+                return 0;
+            }
+            return relevance(entry, overlap) * upcomingBoost(entry.time(), now);
+        });
+    }
+
+    public List<Long> recommendProjects(UUID userId, int limit) {
+        return projects.topK(query(userId), limit, this::relevance);
+    }
+
+    public List<UUID> recommendProfiles(UUID userId, int limit) {
+        return profiles.topK(query(userId), limit,
+                (entry, overlap) -> entry.id().equals(userId) ? 0 : relevance(entry, overlap));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendations.rebuild-interval:PT10M}",
+            initialDelayString = "${recommendations.rebuild-interval:PT10M}"
+    )
+    public void rebuild() {
+        boolean rebuilt = rebuild(events, loader::loadEvents)
+                & rebuild(projects, loader::loadProjects)
+                & rebuild(profiles, loader::loadProfiles);
+        ready |= rebuilt;
+
+        log.info("Recommendation indexes rebuilt: {} events, {} projects, {} profiles",
+                events.size(), projects.size(), profiles.size());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChanged change) {
+        switch (change.kind()) {
+            case EVENT -> refresh(events, change.id(), loader::loadEvent);
+            case PROJECT -> refresh(projects, change.id(), loader::loadProject);
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChanged change) {
+        switch (change.kind()) {
+            case EVENT -> refreshAll(events, change.ids(), loader::loadEvents);
+            case PROJECT -> refreshAll(projects, change.ids(), loader::loadProjects);
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChanged change) {
+        refresh(profiles, change.id(), loader::loadProfile);
+    }
+
+    // Интересы весят больше навыков; термин из обоих списков берёт больший вес
+    private Map<String, Double> query(UUID userId) {
+        UserProfileCard user = userProfileCards.get(List.of(userId)).get(userId);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        Map<String, Double> query = new HashMap<>();
+        addTerms(query, user.skills(), skillWeight);
+        addTerms(query, user.interests(), interestWeight);
+        return query;
+    }
+
+    private static void addTerms(Map<String, Double> query, Collection<String> terms, double weight) {
+        for (String term : terms) {
+            if (term != null && !term.isBlank()) {
+                query.merge(TermDictionary.normalize(term), weight, Math::max);
+            }
+        }
+    }
+
+    // Нормировка на число тегов не даёт объектам с длинным списком тегов выигрывать за счёт количества
+    private double relevance(TermIndex.Entry<?> entry, double overlap) {
+        return overlap / Math.sqrt(entry.terms().size())
+                * (1 + popularityWeight * Math.log1p(entry.popularity()));
+    }
+
+    private double upcomingBoost(LocalDateTime time, LocalDateTime now) {
+        if (time == null) {
+            return 1;
+        }
+        double untilStart = Duration.between(now, time).toMinutes();
+        return 1 + upcomingWeight * Math.exp(-untilStart / upcomingHorizon.toMinutes());
+    }
+
+    // При ошибке чтения остаётся прежний индекс, следующая попытка — по расписанию
+    private static <K extends Comparable<K>> boolean rebuild(TermIndex<K> index, Supplier<List<TermIndex.Entry<K>>> loader) {
+        index.beginRebuild();
+        try {
+            index.replaceAll(loader.get());
+            return true;
+        } catch (DataAccessException e) {
+            index.cancelRebuild();
+            log.warn("Recommendation index rebuild failed", e);
+            return false;
+        }
+    }
+
+    private static <K extends Comparable<K>> void refresh(TermIndex<K> index, K id,
+                                                          Function<K, Optional<TermIndex.Entry<K>>> loader) {
+        loader.apply(id).ifPresentOrElse(index::put, () -> index.remove(id));
+    }
+
+    private static void refreshAll(TermIndex<Long> index, List<Long> ids,
+                                   Function<Collection<Long>, List<TermIndex.Entry<Long>>> loader) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (TermIndex.Entry<Long> entry : loader.apply(ids)) {
+            index.put(entry);
+            missing.remove(entry.id());
+        }
+        missing.forEach(index::remove);
+    }
+}
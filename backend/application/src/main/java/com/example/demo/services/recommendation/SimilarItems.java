@@ -0,0 +1,100 @@
+package com.example.demo.services.recommendation;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// «Кто лайкал или участвовал в этом, также…»: item-item модель по лайкам и участию.
+// Точечно обновляется после каждого лайка и вступления, по расписанию пересобирается из БД
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimilarItems {
+
+    private final RecommendationLoader loader;
+
+    @Value("${recommendations.co-occurrence.neighbors:50}")
+    private int neighbors;
+
+    @Value("${recommendations.co-occurrence.max-user-items:500}")
+    private int maxUserItems;
+
+    private final Map<ItemChanged.Kind, CoOccurrenceIndex> indexes = new EnumMap<>(ItemChanged.Kind.class);
+
+    @PostConstruct
+    void init() {
+        for (ItemChanged.Kind kind : ItemChanged.Kind.values()) {
+            indexes.put(kind, new CoOccurrenceIndex(neighbors, maxUserItems));
+        }
+    }
+
+    public List<Long> similarTo(ItemChanged.Kind kind, Long id, int limit) {
+        return indexes.get(kind).similarTo(id, limit).stream()
+                .map(CoOccurrenceIndex.Neighbor::id)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendations.co-occurrence.rebuild-interval:PT30M}",
+            initialDelayString = "${recommendations.co-occurrence.rebuild-interval:PT30M}"
+    )
+    public void rebuild() {
+        indexes.forEach((kind, index) -> {
+            try {
+                index.rebuild(loader.loadInteractions(kind));
+                log.info("Co-occurrence index rebuilt: {} {} items", index.size(), kind);
+            } catch (DataAccessException e) {
+                log.warn("Co-occurrence index rebuild failed for {}", kind, e);
+            }
+        });
+    }
+
+    // Учитывается только появление первой связи с объектом или исчезновение последней,
+    // чтобы лайк участника не считался вторым взаимодействием
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInteractionChanged(InteractionChanged change) {
+        Map<Long, Integer> relations = loader.loadUserRelations(change.kind(), List.of(change.userId()))
+                .getOrDefault(change.userId(), Map.of());
+        apply(change.kind(), change.itemId(), relations, change.added());
+    }
+
+    // Связи всей пачки пользователей читаются одним запросом
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInteractionsChanged(InteractionsChanged change) {
+        Map<UUID, Map<Long, Integer>> relations = loader.loadUserRelations(change.kind(), change.userIds());
+        for (UUID userId : change.userIds()) {
+            apply(change.kind(), change.itemId(), relations.getOrDefault(userId, Map.of()), change.added());
+        }
+    }
+
+    private void apply(ItemChanged.Kind kind, Long itemId, Map<Long, Integer> relations, boolean added) {
+        int remaining = relations.getOrDefault(itemId, 0);
+        if (added ? remaining != 1 : remaining != 0) {
+            return;
+        }
+
+        long[] others = relations.keySet().stream()
+                .filter(id -> !id.equals(itemId))
+                .mapToLong(Long::longValue)
+                .toArray();
+        indexes.get(kind).apply(itemId, others, added ? 1 : -1);
+    }
+}
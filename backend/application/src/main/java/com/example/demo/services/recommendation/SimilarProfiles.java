@@ -0,0 +1,58 @@
+package com.example.demo.services.recommendation;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// «Люди, похожие на меня»: ближайшие профили по оценке сходства Жаккара множеств
+// навыков и интересов. Индекс обновляется после изменения профиля и пересобирается по расписанию
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimilarProfiles {
+
+    private final RecommendationLoader loader;
+
+    private final MinHashIndex index = new MinHashIndex();
+
+    public List<UUID> similarTo(UUID userId, int limit) {
+        return index.similarTo(userId, limit).stream()
+                .map(MinHashIndex.Similar::id)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendations.rebuild-interval:PT10M}",
+            initialDelayString = "${recommendations.rebuild-interval:PT10M}"
+    )
+    public void rebuild() {
+        index.beginRebuild();
+        try {
+            index.replaceAll(loader.loadProfileFeatures());
+            log.info("Similar profiles index rebuilt: {} profiles", index.size());
+        } catch (DataAccessException e) {
+            index.cancelRebuild();
+            log.warn("Similar profiles index rebuild failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChanged change) {
+        loader.loadProfileFeatures(change.id())
+                .ifPresentOrElse(index::put, () -> index.remove(change.id()));
+    }
+}
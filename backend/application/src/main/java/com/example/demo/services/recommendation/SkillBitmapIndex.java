@@ -0,0 +1,230 @@
+package com.example.demo.services.recommendation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.example.demo.entities.UserStatus;
+
+// Навыки и пользователи закодированы плотными int-номерами: навык → битовая карта пользователей.
+// Подбор команды — жадное покрытие множества: на каждом шаге берётся пользователь, закрывающий
+// больше всего ещё не покрытых навыков
+class SkillBitmapIndex {
+
+    record SkillProfile(UUID id, UserStatus status, Set<String> skills) {
+    }
+
+    private static final Set<UserStatus> PREFERRED = EnumSet.of(UserStatus.LOOKING_FOR_TEAM, UserStatus.WANT_COLLABORATE);
+
+    private static final class State {
+
+        final Map<String, Integer> skillIds = new HashMap<>();
+        final List<CompactBitmap> skillUsers = new ArrayList<>();
+        final Map<UUID, Integer> userIds = new HashMap<>();
+        final List<UUID> users = new ArrayList<>();
+        final List<int[]> userSkills = new ArrayList<>();
+        final CompactBitmap preferred = new CompactBitmap();
+        // NOT_AVAILABLE и удалённые профили: номер за ними сохраняется до пересборки
+        final CompactBitmap unavailable = new CompactBitmap();
+
+        void put(SkillProfile profile) {
+            int user = userIds.computeIfAbsent(profile.id(), id -> {
+                users.add(id);
+                userSkills.add(new int[0]);
+                return users.size() - 1;
+            });
+            clear(user);
+
+            int[] skills = profile.skills().stream()
+                    .mapToInt(skill -> skillIds.computeIfAbsent(skill, name -> {
+                        skillUsers.add(new CompactBitmap());
+                        return skillUsers.size() - 1;
+                    }))
+                    .toArray();
+            for (int skill : skills) {
+                skillUsers.get(skill).add(user);
+            }
+            userSkills.set(user, skills);
+
+            if (PREFERRED.contains(profile.status())) {
+                preferred.add(user);
+            }
+            if (profile.status() == UserStatus.NOT_AVAILABLE) {
+                unavailable.add(user);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer user = userIds.get(id);
+            if (user != null) {
+                clear(user);
+                unavailable.add(user);
+            }
+        }
+
+        private void clear(int user) {
+            for (int skill : userSkills.get(user)) {
+                skillUsers.get(skill).remove(user);
+            }
+            userSkills.set(user, new int[0]);
+            preferred.remove(user);
+            unavailable.remove(user);
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    // Изменения, пришедшие во время пересборки: накладываются поверх нового снимка
+    private Map<UUID, Optional<SkillProfile>> changedDuringRebuild;
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return state.users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void replaceAll(Collection<SkillProfile> snapshot) {
+        State newState = new State();
+        snapshot.forEach(newState::put);
+
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.forEach((id, change) ->
+                        change.ifPresentOrElse(newState::put, () -> newState.remove(id)));
+                changedDuringRebuild = null;
+            }
+            state = newState;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(SkillProfile profile) {
+        lock.writeLock().lock();
+        try {
+            state.put(profile);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(profile.id(), Optional.of(profile));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            state.remove(id);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(id, Optional.empty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // При равном числе закрытых навыков выигрывает тот, кто ищет команду или хочет сотрудничать
+    TeamSuggestion cover(Set<String> required, Set<String> alreadyCovered, Set<UUID> exclude, int maxMembers) {
+        Set<String> uncoveredNames = new LinkedHashSet<>(required);
+        uncoveredNames.removeAll(alreadyCovered);
+
+        List<UUID> members = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Integer, String> uncovered = new LinkedHashMap<>();
+            for (String name : uncoveredNames) {
+                Integer skill = state.skillIds.get(name);
+                if (skill != null) {
+                    uncovered.put(skill, name);
+                }
+            }
+
+            CompactBitmap excluded = new CompactBitmap();
+            for (UUID id : exclude) {
+                Integer user = state.userIds.get(id);
+                if (user != null) {
+                    excluded.add(user);
+                }
+            }
+
+            while (!uncovered.isEmpty() && members.size() < maxMembers) {
+                // Кандидаты — только владельцы ещё не закрытых навыков; пользователь из нескольких
+                // битмапов оценивается повторно с тем же результатом. Равные выигрыши решает
+                // предпочтение, затем меньший номер — как при проходе по всем пользователям
+                int[] best = {-1, 0, 0};
+                for (int skill : uncovered.keySet()) {
+                    state.skillUsers.get(skill).forEach(user -> {
+                        if (excluded.contains(user) || state.unavailable.contains(user)) {
+                            return;
+                        }
+                        int gain = 0;
+                        for (int other : uncovered.keySet()) {
+                            if (state.skillUsers.get(other).contains(user)) {
+                                gain++;
+                            }
+                        }
+                        int preferred = state.preferred.contains(user) ? 1 : 0;
+                        if (best[0] < 0 || gain > best[1]
+                                || gain == best[1] && (preferred > best[2] || preferred == best[2] && user < best[0])) {
+                            best[0] = user;
+                            best[1] = gain;
+                            best[2] = preferred;
+                        }
+                    });
+                }
+                if (best[0] < 0) {
+                    break;
+                }
+
+                int chosen = best[0];
+                members.add(state.users.get(chosen));
+                excluded.add(chosen);
+                uncovered.entrySet().removeIf(entry -> {
+                    boolean covered = state.skillUsers.get(entry.getKey()).contains(chosen);
+                    if (covered) {
+                        uncoveredNames.remove(entry.getValue());
+                    }
+                    return covered;
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Set<String> covered = new LinkedHashSet<>(required);
+        covered.removeAll(uncoveredNames);
+        return new TeamSuggestion(members, covered, uncoveredNames);
+    }
+}
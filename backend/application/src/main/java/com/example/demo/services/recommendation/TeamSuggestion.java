@@ -0,0 +1,9 @@
+package com.example.demo.services.recommendation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Предложенные участники в порядке выбора и навыки, которые команда закрывает и не закрывает
+public record TeamSuggestion(List<UUID> memberIds, Set<String> coveredSkills, Set<String> uncoveredSkills) {
+}
@@ -0,0 +1,70 @@
+package com.example.demo.services.recommendation;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.services.terms.TermDictionary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Подбор команды под набор навыков по индексу «навык → битовая карта пользователей»
+// вместо просмотра user_profile_skill_terms
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamSuggestions {
+
+    private final RecommendationLoader loader;
+
+    private final SkillBitmapIndex index = new SkillBitmapIndex();
+
+    // Навыки уже имеющихся участников считаются закрытыми, сами участники не предлагаются
+    public TeamSuggestion suggest(Collection<String> required, Collection<String> teamSkills,
+                                  Set<UUID> teamIds, int maxMembers) {
+        return index.cover(normalize(required), normalize(teamSkills), teamIds, maxMembers);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendations.rebuild-interval:PT10M}",
+            initialDelayString = "${recommendations.rebuild-interval:PT10M}"
+    )
+    public void rebuild() {
+        index.beginRebuild();
+        try {
+            index.replaceAll(loader.loadSkillProfiles());
+            log.info("Skill bitmap index rebuilt: {} profiles", index.size());
+        } catch (DataAccessException e) {
+            index.cancelRebuild();
+            log.warn("Skill bitmap index rebuild failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChanged change) {
+        loader.loadSkillProfile(change.id())
+                .ifPresentOrElse(index::put, () -> index.remove(change.id()));
+    }
+
+    private static Set<String> normalize(Collection<String> skills) {
+        return skills.stream()
+                .filter(skill -> skill != null && !skill.isBlank())
+                .map(TermDictionary::normalize)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.services.recommendation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Обратный индекс «термин → объекты» в памяти. Кандидаты собираются только из списков
+// совпавших терминов, лучшие k держатся в куче, поэтому запрос не обходит весь каталог
+class TermIndex<K extends Comparable<K>> {
+
+    record Entry<K>(K id, Set<String> terms, double popularity, LocalDateTime time) {
+    }
+
+    @FunctionalInterface
+    interface Scorer<K> {
+        // Неположительный результат исключает кандидата
+        double score(Entry<K> entry, double overlap);
+    }
+
+    private record Scored<K>(K id, double score) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<K, Entry<K>> entries = new HashMap<>();
+    private Map<String, Set<K>> postings = new HashMap<>();
+    // Изменения, пришедшие во время пересборки: накладываются поверх нового снимка
+    private Map<K, Optional<Entry<K>>> changedDuringRebuild;
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void replaceAll(Collection<Entry<K>> snapshot) {
+        Map<K, Entry<K>> newEntries = new HashMap<>(snapshot.size() * 2);
+        Map<String, Set<K>> newPostings = new HashMap<>();
+        for (Entry<K> entry : snapshot) {
+            index(newEntries, newPostings, entry);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.forEach((id, change) -> {
+                    unindex(newEntries, newPostings, id);
+                    change.ifPresent(entry -> index(newEntries, newPostings, entry));
+                });
+                changedDuringRebuild = null;
+            }
+            entries = newEntries;
+            postings = newPostings;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(Entry<K> entry) {
+        lock.writeLock().lock();
+        try {
+            unindex(entries, postings, entry.id());
+            index(entries, postings, entry);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(entry.id(), Optional.of(entry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(K id) {
+        lock.writeLock().lock();
+        try {
+            unindex(entries, postings, id);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(id, Optional.empty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Лучшие k объектов по убыванию score; при равенстве — по возрастанию id
+    List<K> topK(Map<String, Double> query, int k, Scorer<K> scorer) {
+        if (query.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        Comparator<Scored<K>> worstFirst = Comparator.<Scored<K>>comparingDouble(Scored::score)
+                .thenComparing(Scored::id, Comparator.reverseOrder());
+        PriorityQueue<Scored<K>> heap = new PriorityQueue<>(k + 1, worstFirst);
+
+        lock.readLock().lock();
+        try {
+            Map<K, Double> overlaps = new HashMap<>();
+            query.forEach((term, weight) -> {
+                for (K id : postings.getOrDefault(term, Set.of())) {
+                    overlaps.merge(id, weight, Double::sum);
+                }
+            });
+
+            overlaps.forEach((id, overlap) -> {
+                double score = scorer.score(entries.get(id), overlap);
+                if (score <= 0) {
+                    return;
+                }
+                heap.offer(new Scored<>(id, score));
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Scored<K>> ranked = new ArrayList<>(heap);
+        ranked.sort(worstFirst.reversed());
+        return ranked.stream().map(Scored::id).toList();
+    }
+
+    private static <K> void index(Map<K, Entry<K>> entries, Map<String, Set<K>> postings, Entry<K> entry) {
+        entries.put(entry.id(), entry);
+        for (String term : entry.terms()) {
+            postings.computeIfAbsent(term, t -> new HashSet<>()).add(entry.id());
+        }
+    }
+
+    private static <K> void unindex(Map<K, Entry<K>> entries, Map<String, Set<K>> postings, K id) {
+        Entry<K> previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Set<K> ids = postings.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.services.search;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.exception.exceptions.BadRequestException;
+import com.example.demo.services.pagination.CursorPagination;
+
+import lombok.RequiredArgsConstructor;
+
+// Поиск по сгенерированным колонкам search_vector (GIN-индексы, см. db/schema.sql).
+// Выдача упорядочена по ts_rank_cd, курсор — пара (rank, id); фрагменты ts_headline
+// считаются только для строк страницы
+@Component
+@RequiredArgsConstructor
+public class FullTextSearch {
+
+    public record Match<K>(K id, float rank, String snippet) {
+
+        public CursorPagination.RankedKey key() {
+            return new CursorPagination.RankedKey(rank, id.toString());
+        }
+    }
+
+    private static final String HEADLINE_OPTIONS =
+            "MaxFragments=2, MaxWords=20, MinWords=5, StartSel=<mark>, StopSel=</mark>, FragmentDelimiter=\" … \"";
+
+    // Текст пользователя экранируется до ts_headline: в готовом фрагменте разметкой остаются только <mark>.
+    // Сущности &amp;/&lt;/&gt; парсер не индексирует, поэтому подсветка совпадений не меняется
+    private static final String SEARCH = """
+            WITH q AS (SELECT websearch_to_tsquery('russian', :query) AS query)
+            SELECT p.id, p.rank,
+                   ts_headline('russian', replace(replace(replace(%1$s, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'),
+                               q.query, :options) AS snippet
+            FROM (
+                SELECT t.id, ts_rank_cd(t.search_vector, q.query) AS rank
+                FROM %2$s t, q
+                WHERE t.search_vector @@ q.query %3$s
+                ORDER BY rank DESC, t.id
+                LIMIT :limit
+            ) p
+            JOIN %2$s t ON t.id = p.id
+            CROSS JOIN q
+            ORDER BY p.rank DESC, p.id
+            """;
+
+    private static final String AFTER = """
+            AND (ts_rank_cd(t.search_vector, q.query) < :afterRank
+                 OR ts_rank_cd(t.search_vector, q.query) = :afterRank AND t.id > :afterId)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Match<Long>> events(String query, CursorPagination.RankedKey after, int limit) {
+        return search("events", "concat_ws(' ', t.name, t.place, t.description)",
+                query, after, Long::valueOf, limit, Long.class);
+    }
+
+    public List<Match<Long>> projects(String query, CursorPagination.RankedKey after, int limit) {
+        return search("projects", "concat_ws(' ', t.name, t.description)",
+                query, after, Long::valueOf, limit, Long.class);
+    }
+
+    public List<Match<UUID>> userProfiles(String query, CursorPagination.RankedKey after, int limit) {
+        return search("user_profiles", "concat_ws(' ', t.first_name, t.last_name, t.description)",
+                query, after, UUID::fromString, limit, UUID.class);
+    }
+
+    private <K> List<Match<K>> search(String table, String headlineText, String query, CursorPagination.RankedKey after,
+                                      Function<String, K> idParser, int limit, Class<K> idType) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("options", HEADLINE_OPTIONS)
+                .addValue("limit", limit);
+        if (after != null) {
+            try {
+                params.addValue("afterRank", after.rank()).addValue("afterId", idParser.apply(after.id()));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        String sql = SEARCH.formatted(headlineText, table, after != null ? AFTER : "");
+        return jdbcTemplate.query(sql, params, (rs, rowNum) ->
+                new Match<>(rs.getObject("id", idType), rs.getFloat("rank"), rs.getString("snippet")));
+    }
+}
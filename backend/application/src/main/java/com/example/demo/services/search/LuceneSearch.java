@@ -0,0 +1,518 @@
+package com.example.demo.services.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.DrillDownQuery;
+import org.apache.lucene.facet.DrillSideways;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.services.pagination.CursorPagination;
+import com.example.demo.services.recommendation.ItemChanged;
+import com.example.demo.services.recommendation.ItemsChanged;
+import com.example.demo.services.recommendation.ProfileChanged;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Встроенный индекс Lucene по событиям, проектам и профилям. Живёт в памяти, обновляется
+// после каждого изменения объекта и становится виден поиску в пределах max-stale (NRT);
+// полностью пересобирается из Postgres при старте, по расписанию и по запросу администратора.
+// Фасеты — SortedSetDocValues, счётчики считаются через DrillSideways: выбранное значение
+// измерения не обнуляет счётчики остальных значений того же измерения
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LuceneSearch {
+
+    public record Result<K>(List<FullTextSearch.Match<K>> matches, Map<String, Map<String, Integer>> facets) {
+    }
+
+    static final String NAME = "name";
+    static final String PLACE = "place";
+    static final String DESCRIPTION = "description";
+    static final String TAGS = "tags";
+
+    static final String TAG = "tag";
+    static final String STATUS = "status";
+    static final String SKILL = "skill";
+    static final String INTEREST = "interest";
+
+    private static final String KEY = "key";
+    private static final int STRIPES = 64;
+    private static final String KIND = "kind";
+    private static final String ID = "id";
+
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(NAME, 3f, TAGS, 2f, PLACE, 1f, DESCRIPTION, 1f);
+    // Курсор — пара (score, id), как и у поиска в Postgres
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.STRING));
+
+    private static final Map<SearchDocument.Kind, List<String>> DIMENSIONS = Map.of(
+            SearchDocument.Kind.EVENT, List.of(TAG),
+            SearchDocument.Kind.PROJECT, List.of(TAG, STATUS),
+            SearchDocument.Kind.PROFILE, List.of(SKILL, INTEREST, STATUS));
+
+    private final SearchIndexLoader loader;
+
+    private final Analyzer analyzer = new RussianAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Чтение объекта из БД и запись в индекс идут под блокировкой его полосы: иначе два обновления
+    // одного объекта могут применить снимки в обратном порядке. Тот, кто берёт блокировку вторым,
+    // читает уже закоммиченное состояние не старее первого
+    private final Lock[] stripes = IntStream.range(0, STRIPES).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
+    private Generation current;
+    // Изменения, пришедшие во время пересборки: накладываются поверх нового индекса
+    private Map<String, Optional<SearchDocument>> changedDuringRebuild;
+
+    @Value("${search.lucene.max-stale:PT1S}")
+    private Duration maxStale;
+
+    @Value("${search.lucene.min-stale:PT0.025S}")
+    private Duration minStale;
+
+    @Value("${search.lucene.facet-limit:20}")
+    private int facetLimit;
+
+    @PostConstruct
+    void open() throws IOException {
+        facetsConfig.setMultiValued(TAG, true);
+        facetsConfig.setMultiValued(SKILL, true);
+        facetsConfig.setMultiValued(INTEREST, true);
+        current = new Generation();
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            current.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result<Long> events(String query, Set<String> tags, CursorPagination.RankedKey after, int limit) {
+        return search(SearchDocument.Kind.EVENT, query, filters(TAG, tags, null, null), after, limit, Long::valueOf);
+    }
+
+    public Result<Long> projects(String query, Set<String> tags, Set<String> statuses,
+                                 CursorPagination.RankedKey after, int limit) {
+        return search(SearchDocument.Kind.PROJECT, query, filters(TAG, tags, STATUS, statuses), after, limit,
+                Long::valueOf);
+    }
+
+    public Result<UUID> userProfiles(String query, Set<String> skills, Set<String> statuses,
+                                     CursorPagination.RankedKey after, int limit) {
+        return search(SearchDocument.Kind.PROFILE, query, filters(SKILL, skills, STATUS, statuses), after, limit,
+                UUID::fromString);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        scheduledRebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${search.lucene.rebuild-interval:PT30M}",
+            initialDelayString = "${search.lucene.rebuild-interval:PT30M}"
+    )
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.warn("Search index rebuild failed", e);
+        }
+    }
+
+    // Новый индекс собирается рядом со старым; поиск продолжает работать по старому до подмены
+    public synchronized Map<String, Integer> rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Generation next = null;
+        try {
+            Map<SearchDocument.Kind, List<SearchDocument>> snapshot = new EnumMap<>(SearchDocument.Kind.class);
+            snapshot.put(SearchDocument.Kind.EVENT, loader.loadEvents());
+            snapshot.put(SearchDocument.Kind.PROJECT, loader.loadProjects());
+            snapshot.put(SearchDocument.Kind.PROFILE, loader.loadProfiles());
+
+            next = new Generation();
+            for (List<SearchDocument> documents : snapshot.values()) {
+                for (SearchDocument document : documents) {
+                    next.writer.addDocument(toLucene(document));
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<String, Optional<SearchDocument>> change : changedDuringRebuild.entrySet()) {
+                    apply(next, change.getKey(), change.getValue());
+                }
+                changedDuringRebuild = null;
+                next.searchers.maybeRefreshBlocking();
+
+                Generation previous = current;
+                current = next;
+                next = null;
+                previous.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            snapshot.forEach((kind, documents) -> counts.put(kind.name().toLowerCase(Locale.ROOT), documents.size()));
+            log.info("Search index rebuilt: {}", counts);
+            return counts;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (next != null) {
+                cancelRebuild(next);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChanged change) {
+        switch (change.kind()) {
+            case EVENT -> refresh(SearchDocument.Kind.EVENT, change.id().toString(), () -> loader.loadEvent(change.id()));
+            case PROJECT -> refresh(SearchDocument.Kind.PROJECT, change.id().toString(), () -> loader.loadProject(change.id()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChanged change) {
+        switch (change.kind()) {
+            case EVENT -> refreshAll(SearchDocument.Kind.EVENT, change.ids(), () -> loader.loadEvents(change.ids()));
+            case PROJECT -> refreshAll(SearchDocument.Kind.PROJECT, change.ids(), () -> loader.loadProjects(change.ids()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChanged change) {
+        refresh(SearchDocument.Kind.PROFILE, change.id().toString(), () -> loader.loadProfile(change.id()));
+    }
+
+    // При ошибке объект остаётся в прежнем виде до следующей пересборки
+    private void refresh(SearchDocument.Kind kind, String id, Loader loader) {
+        String key = kind + ":" + id;
+        int[] held = lockStripes(List.of(key));
+        try {
+            Optional<SearchDocument> document = loader.load();
+            lock.writeLock().lock();
+            try {
+                apply(current, key, document);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.put(key, document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (DataAccessException | IOException e) {
+            log.warn("Search index update failed for {}: {}", key, e.getMessage());
+        } finally {
+            unlockStripes(held);
+        }
+    }
+
+    // Пачка читается одним запросом и применяется под одной блокировкой
+    private void refreshAll(SearchDocument.Kind kind, List<Long> ids, Supplier<List<SearchDocument>> loader) {
+        Map<String, Optional<SearchDocument>> documents = new LinkedHashMap<>();
+        ids.forEach(id -> documents.put(kind + ":" + id, Optional.empty()));
+        int[] held = lockStripes(documents.keySet());
+        try {
+            loader.get().forEach(document -> documents.put(kind + ":" + document.id(), Optional.of(document)));
+
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<String, Optional<SearchDocument>> document : documents.entrySet()) {
+                    apply(current, document.getKey(), document.getValue());
+                }
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.putAll(documents);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (DataAccessException | IOException e) {
+            log.warn("Search index update failed for {} {}: {}", kind, ids, e.getMessage());
+        } finally {
+            unlockStripes(held);
+        }
+    }
+
+    // Полосы берутся по возрастанию номера, поэтому пачки с общими полосами не блокируют друг друга взаимно
+    private int[] lockStripes(Collection<String> keys) {
+        int[] held = keys.stream()
+                .mapToInt(key -> Math.floorMod(key.hashCode(), STRIPES))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int stripe : held) {
+            stripes[stripe].lock();
+        }
+        return held;
+    }
+
+    private void unlockStripes(int[] held) {
+        for (int i = held.length - 1; i >= 0; i--) {
+            stripes[held[i]].unlock();
+        }
+    }
+
+    private void apply(Generation generation, String key, Optional<SearchDocument> document) throws IOException {
+        if (document.isPresent()) {
+            generation.writer.updateDocument(new Term(KEY, key), toLucene(document.get()));
+        } else {
+            generation.writer.deleteDocuments(new Term(KEY, key));
+        }
+    }
+
+    private void cancelRebuild(Generation next) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            next.close();
+        } catch (IOException e) {
+            log.warn("Failed to close abandoned search index: {}", e.getMessage());
+        }
+    }
+
+    private <K> Result<K> search(SearchDocument.Kind kind, String query, Map<String, Set<String>> filters,
+                                 CursorPagination.RankedKey after, int limit, Function<String, K> idParser) {
+        Query base = new BooleanQuery.Builder()
+                .add(textQuery(query), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(KIND, kind.name())), BooleanClause.Occur.FILTER)
+                .build();
+        DrillDownQuery drillDown = new DrillDownQuery(facetsConfig, base);
+        filters.forEach((dim, values) -> values.forEach(value -> drillDown.add(dim, value)));
+
+        FieldDoc afterDoc = after == null ? null
+                : new FieldDoc(Integer.MAX_VALUE, after.rank(), new Object[] {after.rank(), new BytesRef(after.id())});
+
+        lock.readLock().lock();
+        try {
+            SearcherManager searchers = current.searchers;
+            FacetedSearcher searcher = (FacetedSearcher) searchers.acquire();
+            try {
+                if (searcher.facetState == null) {
+                    TopDocs hits = searcher.searchAfter(afterDoc, drillDown, limit, RELEVANCE, true);
+                    return new Result<>(matches(hits, idParser), Map.of());
+                }
+                DrillSideways.DrillSidewaysResult result = new DrillSideways(searcher, facetsConfig, searcher.facetState)
+                        .search(drillDown, null, afterDoc, limit, RELEVANCE, true);
+                return new Result<>(matches(result.hits, idParser), facets(result.facets, DIMENSIONS.get(kind)));
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Query textQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return new MatchAllDocsQuery();
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        return parser.parse(query);
+    }
+
+    private static <K> List<FullTextSearch.Match<K>> matches(TopDocs hits, Function<String, K> idParser) {
+        List<FullTextSearch.Match<K>> matches = new ArrayList<>(hits.scoreDocs.length);
+        for (ScoreDoc hit : hits.scoreDocs) {
+            Object[] sortValues = ((FieldDoc) hit).fields;
+            matches.add(new FullTextSearch.Match<>(idParser.apply(((BytesRef) sortValues[1]).utf8ToString()),
+                    (Float) sortValues[0], null));
+        }
+        return matches;
+    }
+
+    private Map<String, Map<String, Integer>> facets(Facets facets, List<String> dimensions) throws IOException {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (String dim : dimensions) {
+            Map<String, Integer> values = new LinkedHashMap<>();
+            try {
+                FacetResult result = facets.getTopChildren(facetLimit, dim);
+                if (result != null) {
+                    for (LabelAndValue labelAndValue : result.labelValues) {
+                        values.put(labelAndValue.label, labelAndValue.value.intValue());
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Ни у одного документа нет значений этого измерения
+            }
+            counts.put(dim, values);
+        }
+        return counts;
+    }
+
+    private static Map<String, Set<String>> filters(String firstDim, Set<String> firstValues,
+                                                    String secondDim, Set<String> secondValues) {
+        Map<String, Set<String>> filters = new LinkedHashMap<>();
+        addFilter(filters, firstDim, firstValues);
+        addFilter(filters, secondDim, secondValues);
+        return filters;
+    }
+
+    // Значения фасетов в индексе: теги, навыки и интересы — в нижнем регистре, статусы — имена enum
+    private static void addFilter(Map<String, Set<String>> filters, String dim, Set<String> values) {
+        if (dim == null || values == null || values.isEmpty()) {
+            return;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                normalized.add(STATUS.equals(dim) ? value.trim().toUpperCase(Locale.ROOT) : value.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        if (!normalized.isEmpty()) {
+            filters.put(dim, normalized);
+        }
+    }
+
+    private Document toLucene(SearchDocument source) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(KEY, source.key(), Field.Store.NO));
+        document.add(new StringField(KIND, source.kind().name(), Field.Store.NO));
+        document.add(new SortedDocValuesField(ID, new BytesRef(source.id())));
+        source.text().forEach((field, value) -> {
+            if (value != null && !value.isBlank()) {
+                document.add(new TextField(field, value, Field.Store.NO));
+            }
+        });
+        source.facets().forEach((dim, values) -> values.forEach(value ->
+                document.add(new SortedSetDocValuesFacetField(dim, value))));
+        return facetsConfig.build(document);
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        Optional<SearchDocument> load();
+    }
+
+    // Поисковик вместе с состоянием фасетов для его снимка: состояние строится один раз на обновление
+    private static final class FacetedSearcher extends IndexSearcher {
+
+        private final SortedSetDocValuesReaderState facetState;
+
+        FacetedSearcher(IndexReader reader, SortedSetDocValuesReaderState facetState) {
+            super(reader);
+            this.facetState = facetState;
+        }
+    }
+
+    private final class Generation implements Closeable {
+
+        private final IndexWriter writer;
+        private final SearcherManager searchers;
+        private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+        Generation() throws IOException {
+            writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            searchers = new SearcherManager(writer, new SearcherFactory() {
+                @Override
+                public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+                    return new FacetedSearcher(reader, facetState(reader));
+                }
+            });
+            reopenThread = new ControlledRealTimeReopenThread<>(writer, searchers,
+                    maxStale.toMillis() / 1000.0, minStale.toMillis() / 1000.0);
+            reopenThread.setName("search-index-reopen");
+            reopenThread.setDaemon(true);
+            reopenThread.start();
+        }
+
+        private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+            try {
+                return new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+            } catch (IllegalArgumentException e) {
+                // В индексе ещё нет ни одного значения фасета
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reopenThread.close();
+            searchers.close();
+            writer.close();
+        }
+    }
+}
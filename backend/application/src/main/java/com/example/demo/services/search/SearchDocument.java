@@ -0,0 +1,18 @@
+package com.example.demo.services.search;
+
+import java.util.Map;
+import java.util.Set;
+
+// Объект в виде, пригодном для индекса: текстовые поля для поиска и значения фасетов
+record SearchDocument(Kind kind, String id, Map<String, String> text, Map<String, Set<String>> facets) {
+
+    enum Kind {
+        EVENT,
+        PROJECT,
+        PROFILE
+    }
+
+    String key() {
+        return kind + ":" + id;
+    }
+}
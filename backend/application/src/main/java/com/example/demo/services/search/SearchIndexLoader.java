@@ -0,0 +1,136 @@
+package com.example.demo.services.search;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// Читает из БД поля, которые попадают в поисковый индекс. Значения фасетов
+// (теги, навыки, интересы) приводятся к нижнему регистру, чтобы счётчики не дробились
+@Component
+@RequiredArgsConstructor
+class SearchIndexLoader {
+
+    private static final String EVENTS = """
+            SELECT e.id, e.name, e.place, e.description,
+                   ARRAY(SELECT d.term FROM event_tag_terms t JOIN terms d ON d.id = t.term_id WHERE t.event_id = e.id) AS tags
+            FROM events e
+            """;
+
+    private static final String PROJECTS = """
+            SELECT p.id, p.name, p.description, p.status,
+                   ARRAY(SELECT d.term FROM project_tag_terms t JOIN terms d ON d.id = t.term_id WHERE t.project_id = p.id) AS tags
+            FROM projects p
+            """;
+
+    private static final String PROFILES = """
+            SELECT u.id, u.first_name, u.last_name, u.description, u.status,
+                   ARRAY(SELECT d.term FROM user_profile_skill_terms s JOIN terms d ON d.id = s.term_id WHERE s.user_profile_id = u.id) AS skills,
+                   ARRAY(SELECT d.term FROM user_profile_interest_terms i JOIN terms d ON d.id = i.term_id WHERE i.user_profile_id = u.id) AS interests
+            FROM user_profiles u
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    List<SearchDocument> loadEvents() {
+        return jdbcTemplate.query(EVENTS, (rs, rowNum) -> event(rs));
+    }
+
+    Optional<SearchDocument> loadEvent(Long id) {
+        return jdbcTemplate.query(EVENTS + "WHERE e.id = ?", (rs, rowNum) -> event(rs), id).stream().findFirst();
+    }
+
+    List<SearchDocument> loadEvents(Collection<Long> ids) {
+        return jdbcTemplate.query(EVENTS + "WHERE e.id = ANY(?)", (rs, rowNum) -> event(rs), (Object) ids.toArray(Long[]::new));
+    }
+
+    List<SearchDocument> loadProjects() {
+        return jdbcTemplate.query(PROJECTS, (rs, rowNum) -> project(rs));
+    }
+
+    Optional<SearchDocument> loadProject(Long id) {
+        return jdbcTemplate.query(PROJECTS + "WHERE p.id = ?", (rs, rowNum) -> project(rs), id).stream().findFirst();
+    }
+
+    List<SearchDocument> loadProjects(Collection<Long> ids) {
+        return jdbcTemplate.query(PROJECTS + "WHERE p.id = ANY(?)", (rs, rowNum) -> project(rs), (Object) ids.toArray(Long[]::new));
+    }
+
+    List<SearchDocument> loadProfiles() {
+        return jdbcTemplate.query(PROFILES, (rs, rowNum) -> profile(rs));
+    }
+
+    Optional<SearchDocument> loadProfile(UUID id) {
+        return jdbcTemplate.query(PROFILES + "WHERE u.id = ?", (rs, rowNum) -> profile(rs), id).stream().findFirst();
+    }
+
+    private static SearchDocument event(ResultSet rs) throws SQLException {
+        Set<String> tags = values(rs, "tags");
+        Map<String, String> text = new HashMap<>();
+        text.put(LuceneSearch.NAME, rs.getString("name"));
+        text.put(LuceneSearch.PLACE, rs.getString("place"));
+        text.put(LuceneSearch.DESCRIPTION, rs.getString("description"));
+        text.put(LuceneSearch.TAGS, String.join(" ", tags));
+        return new SearchDocument(SearchDocument.Kind.EVENT, rs.getString("id"), text,
+                Map.of(LuceneSearch.TAG, tags));
+    }
+
+    private static SearchDocument project(ResultSet rs) throws SQLException {
+        Set<String> tags = values(rs, "tags");
+        Map<String, String> text = new HashMap<>();
+        text.put(LuceneSearch.NAME, rs.getString("name"));
+        text.put(LuceneSearch.DESCRIPTION, rs.getString("description"));
+        text.put(LuceneSearch.TAGS, String.join(" ", tags));
+        return new SearchDocument(SearchDocument.Kind.PROJECT, rs.getString("id"), text,
+                Map.of(LuceneSearch.TAG, tags, LuceneSearch.STATUS, status(rs)));
+    }
+
+    private static SearchDocument profile(ResultSet rs) throws SQLException {
+        Set<String> skills = values(rs, "skills");
+        Set<String> interests = values(rs, "interests");
+        Map<String, String> text = new HashMap<>();
+        text.put(LuceneSearch.NAME, joinNonNull(rs.getString("first_name"), rs.getString("last_name")));
+        text.put(LuceneSearch.DESCRIPTION, rs.getString("description"));
+        text.put(LuceneSearch.TAGS, String.join(" ", skills) + " " + String.join(" ", interests));
+        return new SearchDocument(SearchDocument.Kind.PROFILE, rs.getString("id"), text,
+                Map.of(LuceneSearch.SKILL, skills, LuceneSearch.INTEREST, interests, LuceneSearch.STATUS, status(rs)));
+    }
+
+    private static Set<String> status(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        return status != null ? Set.of(status) : Set.of();
+    }
+
+    private static String joinNonNull(String first, String second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null ? first : first + " " + second;
+    }
+
+    private static Set<String> values(ResultSet rs, String column) throws SQLException {
+        Array array = rs.getArray(column);
+        Set<String> values = new LinkedHashSet<>();
+        if (array != null) {
+            for (String value : (String[]) array.getArray()) {
+                if (value != null && !value.isBlank()) {
+                    values.add(value.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return values;
+    }
+}
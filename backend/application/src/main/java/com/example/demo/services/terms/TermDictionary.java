@@ -0,0 +1,177 @@
+package com.example.demo.services.terms;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Словарь терминов (тегов, навыков, интересов): нормализованная строка ↔ целочисленный id.
+// Термины только добавляются, поэтому кэш в памяти не устаревает, а лишь дополняется:
+// промахи дочитываются из БД, термины с других узлов подтягиваются по расписанию
+// (словарь целиком — id выдаются не в порядке коммитов, поэтому «новее последнего» не подходит).
+// Строки в кэше — единственные экземпляры, их разделяют все карточки
+@Slf4j
+@Service
+public class TermDictionary {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    private final Map<String, Integer> idsByTerm = new ConcurrentHashMap<>();
+    private final Map<Integer, String> termsById = new ConcurrentHashMap<>();
+
+    public TermDictionary(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Без учёта регистра и лишних пробелов: «Spring  Boot » и «spring boot» — один термин
+    public static String normalize(String term) {
+        return WHITESPACE.matcher(term.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    // Для записи: недостающие термины добавляются в отдельной транзакции — если сохранение
+    // объекта откатится, в кэше не останется id, которого нет в БД
+    public Set<Integer> idsOf(Collection<String> values) {
+        Set<Integer> ids = new HashSet<>();
+        if (values == null) {
+            return ids;
+        }
+
+        Set<String> missing = new HashSet<>();
+        for (String value : values) {
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            String term = normalize(value);
+            Integer id = idsByTerm.get(term);
+            if (id != null) {
+                ids.add(id);
+            } else {
+                missing.add(term);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            ids.addAll(create(missing));
+        }
+        return ids;
+    }
+
+    public Set<String> terms(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Set.of();
+        }
+
+        List<String> terms = new ArrayList<>(ids.size());
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            String term = termsById.get(id);
+            if (term != null) {
+                terms.add(term);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            jdbcTemplate.query("SELECT id, term FROM terms WHERE id IN (:ids)", Map.of("ids", missing),
+                    rs -> {
+                        terms.add(remember(rs.getInt("id"), rs.getString("term")));
+                    });
+        }
+        return Set.copyOf(terms);
+    }
+
+    // Для фильтров: id известных терминов, содержащих хотя бы один из фрагментов.
+    // null — фильтр не задан; пустой набор — фильтр задан, но ничего не подходит
+    public Set<Integer> matching(Collection<String> fragments) {
+        if (fragments == null) {
+            return null;
+        }
+        List<String> normalized = fragments.stream()
+                .filter(fragment -> fragment != null && !fragment.isBlank())
+                .map(TermDictionary::normalize)
+                .toList();
+        if (normalized.isEmpty()) {
+            return null;
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        idsByTerm.forEach((term, id) -> {
+            for (String fragment : normalized) {
+                if (term.contains(fragment)) {
+                    ids.add(id);
+                    return;
+                }
+            }
+        });
+        return ids;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        refresh();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${terms.refresh-interval:PT1M}",
+            initialDelayString = "${terms.refresh-interval:PT1M}"
+    )
+    public void refresh() {
+        try {
+            jdbcTemplate.query("SELECT id, term FROM terms", Map.of(),
+                    rs -> {
+                        remember(rs.getInt("id"), rs.getString("term"));
+                    });
+        } catch (DataAccessException e) {
+            log.warn("Term dictionary refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private Collection<Integer> create(Set<String> missing) {
+        // Сортировка задаёт общий порядок вставки и исключает взаимные блокировки
+        List<String> sorted = missing.stream().sorted().toList();
+
+        List<Integer> ids = new ArrayList<>(sorted.size());
+        newTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO terms (term) VALUES (:term) ON CONFLICT (term) DO NOTHING",
+                    sorted.stream().map(term -> new MapSqlParameterSource("term", term))
+                            .toArray(MapSqlParameterSource[]::new));
+            jdbcTemplate.query("SELECT id, term FROM terms WHERE term IN (:terms)", Map.of("terms", sorted),
+                    rs -> {
+                        int id = rs.getInt("id");
+                        remember(id, rs.getString("term"));
+                        ids.add(id);
+                    });
+        });
+        return ids;
+    }
+
+    private String remember(int id, String term) {
+        String canonical = termsById.computeIfAbsent(id, key -> term);
+        idsByTerm.putIfAbsent(canonical, id);
+        return canonical;
+    }
+}
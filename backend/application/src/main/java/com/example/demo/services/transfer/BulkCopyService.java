@@ -0,0 +1,290 @@
+package com.example.demo.services.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.dtos.admin.ImportResult;
+import com.example.demo.entities.ProjectStatus;
+import com.example.demo.entities.UserStatus;
+import com.example.demo.exception.exceptions.BadRequestException;
+import com.example.demo.services.autocomplete.AutocompleteService;
+import com.example.demo.services.recommendation.RecommendationService;
+import com.example.demo.services.recommendation.SimilarItems;
+import com.example.demo.services.recommendation.SimilarProfiles;
+import com.example.demo.services.recommendation.TeamSuggestions;
+import com.example.demo.services.search.LuceneSearch;
+import com.example.demo.services.terms.TermDictionary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Массовая загрузка и выгрузка через COPY: CSV с заголовком, списки терминов — через '|'.
+// Импорт копирует файл во временную таблицу и переносит строки в основные таблицы
+// несколькими запросами на множествах. Существующие профили не перезаписываются,
+// события и проекты получают новые id (колонка id файла только для сверки)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkCopyService {
+
+    private static final String CSV = "(FORMAT csv, HEADER true)";
+
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TermDictionary termDictionary;
+    private final LuceneSearch luceneSearch;
+    private final RecommendationService recommendationService;
+    private final AutocompleteService autocompleteService;
+    private final SimilarProfiles similarProfiles;
+    private final TeamSuggestions teamSuggestions;
+    private final SimilarItems similarItems;
+    private final TaskScheduler taskScheduler;
+
+    @Transactional
+    public ImportResult importUserProfiles(InputStream csv) {
+        execute("""
+                CREATE TEMP TABLE import_user_profiles (
+                    id uuid, first_name text, last_name text, description text, status text,
+                    skills text, interests text, imported boolean NOT NULL DEFAULT false
+                ) ON COMMIT DROP
+                """);
+        long received = copyIn("COPY import_user_profiles (id, first_name, last_name, description, status, skills, interests) "
+                + "FROM STDIN WITH " + CSV, csv);
+
+        jdbcTemplate.update("""
+                WITH inserted AS (
+                    INSERT INTO user_profiles (id, first_name, last_name, description, status)
+                    SELECT DISTINCT ON (id) id, first_name, last_name, description, status
+                    FROM import_user_profiles
+                    WHERE id IS NOT NULL AND (status IS NULL OR status IN (:statuses))
+                    ORDER BY id
+                    ON CONFLICT (id) DO NOTHING
+                    RETURNING id
+                )
+                UPDATE import_user_profiles i SET imported = true FROM inserted WHERE i.id = inserted.id
+                """, new MapSqlParameterSource("statuses", names(UserStatus.values())));
+        // Термины привязываются только к новым профилям; повторы id в файле считаются один раз
+        execute("DELETE FROM import_user_profiles WHERE NOT imported");
+        long imported = count("SELECT COUNT(DISTINCT id) FROM import_user_profiles");
+
+        attachTerms("import_user_profiles", "id", "skills", "user_profile_skill_terms", "user_profile_id");
+        attachTerms("import_user_profiles", "id", "interests", "user_profile_interest_terms", "user_profile_id");
+
+        return finish("user profiles", received, imported);
+    }
+
+    @Transactional
+    public ImportResult importEvents(InputStream csv) {
+        execute("""
+                CREATE TEMP TABLE import_events (
+                    id bigint, organizer_id uuid, name text, description text, event_time timestamp,
+                    place text, latitude double precision, longitude double precision, tags text, new_id bigint
+                ) ON COMMIT DROP
+                """);
+        long received = copyIn("COPY import_events (id, organizer_id, name, description, event_time, place, latitude, longitude, tags) "
+                + "FROM STDIN WITH " + CSV, csv);
+
+        execute("""
+                DELETE FROM import_events i
+                WHERE NOT EXISTS (SELECT 1 FROM user_profiles p WHERE p.id = i.organizer_id)
+                   OR (latitude IS NULL) <> (longitude IS NULL)
+                   OR latitude NOT BETWEEN -90 AND 90
+                   OR longitude NOT BETWEEN -180 AND 180
+                """);
+        // Значение nextval Hibernate сам никогда не выдаёт: его пул — 50 id до полученного им значения
+        execute("UPDATE import_events SET new_id = nextval('events_seq')");
+        long imported = jdbcTemplate.update("""
+                INSERT INTO events (id, organizer_id, name, description, event_time, place, latitude, longitude, geohash)
+                SELECT new_id, organizer_id, name, description, event_time, place, latitude, longitude,
+                       geohash_encode(latitude, longitude)
+                FROM import_events
+                """, Map.of());
+
+        attachTerms("import_events", "new_id", "tags", "event_tag_terms", "event_id");
+
+        return finish("events", received, imported);
+    }
+
+    @Transactional
+    public ImportResult importProjects(InputStream csv) {
+        execute("""
+                CREATE TEMP TABLE import_projects (
+                    id bigint, organizer_id uuid, name text, description text, status text,
+                    invitation_code text, tags text, new_id bigint
+                ) ON COMMIT DROP
+                """);
+        long received = copyIn("COPY import_projects (id, organizer_id, name, description, status, invitation_code, tags) "
+                + "FROM STDIN WITH " + CSV, csv);
+
+        jdbcTemplate.update("""
+                DELETE FROM import_projects i
+                WHERE NOT EXISTS (SELECT 1 FROM user_profiles p WHERE p.id = i.organizer_id)
+                   OR status IS NOT NULL AND status NOT IN (:statuses)
+                """, new MapSqlParameterSource("statuses", names(ProjectStatus.values())));
+        execute("UPDATE import_projects SET new_id = nextval('projects_seq')");
+        long imported = jdbcTemplate.update("""
+                INSERT INTO projects (id, organizer_id, name, description, status, invitation_code)
+                SELECT new_id, organizer_id, name, description, status, invitation_code
+                FROM import_projects
+                """, Map.of());
+
+        attachTerms("import_projects", "new_id", "tags", "project_tag_terms", "project_id");
+
+        return finish("projects", received, imported);
+    }
+
+    public void exportUserProfiles(OutputStream out) {
+        copyOut("""
+                COPY (
+                    SELECT p.id, p.first_name, p.last_name, p.description, p.status,
+                           %s AS skills, %s AS interests
+                    FROM user_profiles p
+                    ORDER BY p.id
+                ) TO STDOUT WITH %s
+                """.formatted(
+                        termList("user_profile_skill_terms", "user_profile_id", "p.id"),
+                        termList("user_profile_interest_terms", "user_profile_id", "p.id"),
+                        CSV), out);
+    }
+
+    public void exportEvents(OutputStream out) {
+        copyOut("""
+                COPY (
+                    SELECT e.id, e.organizer_id, e.name, e.description, e.event_time, e.place,
+                           e.latitude, e.longitude, %s AS tags
+                    FROM events e
+                    ORDER BY e.id
+                ) TO STDOUT WITH %s
+                """.formatted(termList("event_tag_terms", "event_id", "e.id"), CSV), out);
+    }
+
+    public void exportProjects(OutputStream out) {
+        copyOut("""
+                COPY (
+                    SELECT p.id, p.organizer_id, p.name, p.description, p.status, p.invitation_code, %s AS tags
+                    FROM projects p
+                    ORDER BY p.id
+                ) TO STDOUT WITH %s
+                """.formatted(termList("project_tag_terms", "project_id", "p.id"), CSV), out);
+    }
+
+    // Термины в общий словарь, затем связи владельцев с ними. Нормализация та же, что в TermDictionary
+    private void attachTerms(String staging, String ownerColumn, String valuesColumn, String table, String tableOwnerColumn) {
+        // Сортировка задаёт общий порядок вставки и исключает взаимные блокировки
+        execute("""
+                INSERT INTO terms (term)
+                SELECT DISTINCT normalize_term(v.value)
+                FROM %1$s i
+                CROSS JOIN LATERAL unnest(string_to_array(i.%3$s, '|')) AS v(value)
+                WHERE i.%2$s IS NOT NULL AND length(normalize_term(v.value)) > 0
+                ORDER BY 1
+                ON CONFLICT (term) DO NOTHING
+                """.formatted(staging, ownerColumn, valuesColumn));
+        execute("""
+                INSERT INTO %4$s (%5$s, term_id)
+                SELECT DISTINCT i.%2$s, d.id
+                FROM %1$s i
+                CROSS JOIN LATERAL unnest(string_to_array(i.%3$s, '|')) AS v(value)
+                JOIN terms d ON d.term = normalize_term(v.value)
+                WHERE i.%2$s IS NOT NULL
+                ON CONFLICT DO NOTHING
+                """.formatted(staging, ownerColumn, valuesColumn, table, tableOwnerColumn));
+    }
+
+    private static String termList(String table, String ownerColumn, String ownerExpression) {
+        return "(SELECT string_agg(d.term, '|' ORDER BY d.term) FROM %1$s t JOIN terms d ON d.id = t.term_id WHERE t.%2$s = %3$s)"
+                .formatted(table, ownerColumn, ownerExpression);
+    }
+
+    // Словарь и индексы в памяти пересобираются после коммита в пуле планировщика, не дожидаясь
+    // расписания. Импорт к этому моменту зафиксирован, поэтому ошибка пересборки только пишется в лог
+    private ImportResult finish(String kind, long received, long imported) {
+        log.info("Bulk import of {}: {} rows received, {} imported", kind, received, imported);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                taskScheduler.schedule(() -> rebuildIndexes(kind), Instant.now());
+            }
+        });
+        return new ImportResult(received, imported);
+    }
+
+    private void rebuildIndexes(String kind) {
+        List<Runnable> rebuilds = List.of(
+                termDictionary::refresh,
+                luceneSearch::rebuild,
+                recommendationService::rebuild,
+                autocompleteService::rebuild,
+                similarProfiles::rebuild,
+                teamSuggestions::rebuild,
+                similarItems::rebuild);
+        for (Runnable rebuild : rebuilds) {
+            try {
+                rebuild.run();
+            } catch (RuntimeException e) {
+                log.warn("Index rebuild after bulk import of {} failed", kind, e);
+            }
+        }
+    }
+
+    private long copyIn(String sql, InputStream in) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return copyManager(connection).copyIn(sql, in);
+        } catch (SQLException e) {
+            throw new BadRequestException("Import failed: " + e.getMessage());
+        } catch (IOException e) {
+            throw new BadRequestException("Import failed while reading the request body: " + e.getMessage());
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void copyOut(String sql, OutputStream out) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            copyManager(connection).copyOut(sql, out);
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Export failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static CopyManager copyManager(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private void execute(String sql) {
+        jdbcTemplate.getJdbcTemplate().execute(sql);
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Map.of(), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static List<String> names(Enum<?>[] values) {
+        return Arrays.stream(values).map(Enum::name).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.services.viewer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dtos.card.ViewerOverlay;
+import com.example.demo.repositories.EventRepository;
+import com.example.demo.repositories.ProjectRepository;
+import com.example.demo.repositories.UserProfileRepository;
+import com.example.demo.security.IUserProfile;
+import com.example.demo.services.likes.LikeBuffer;
+import com.example.demo.services.likes.LikeOverlay;
+import com.example.demo.services.likes.LikeTarget;
+
+import lombok.RequiredArgsConstructor;
+
+// Флаги текущего пользователя для страницы: по одному запросу на тип флага
+@Component
+@RequiredArgsConstructor
+public class ViewerOverlays {
+
+    private final EventRepository eventRepository;
+    private final ProjectRepository projectRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final LikeBuffer likeBuffer;
+
+    public ViewerOverlay forEvents(List<Long> eventIds, Collection<UUID> profileIds) {
+        UUID viewerId = getCurrentUserId();
+        Set<Long> persisted = eventIds.isEmpty() ? Set.of() : eventRepository.findLikedIds(eventIds, viewerId);
+        return overlay(viewerId, likeBuffer.overlay(LikeTarget.EVENT, eventIds, viewerId, persisted), profileIds);
+    }
+
+    public ViewerOverlay forProjects(List<Long> projectIds, Collection<UUID> profileIds) {
+        UUID viewerId = getCurrentUserId();
+        Set<Long> persisted = projectIds.isEmpty() ? Set.of() : projectRepository.findLikedIds(projectIds, viewerId);
+        return overlay(viewerId, likeBuffer.overlay(LikeTarget.PROJECT, projectIds, viewerId, persisted), profileIds);
+    }
+
+    public ViewerOverlay forProfiles(Collection<UUID> profileIds) {
+        return overlay(getCurrentUserId(), new LikeOverlay(Set.of(), Map.of()), profileIds);
+    }
+
+    private ViewerOverlay overlay(UUID viewerId, LikeOverlay likes, Collection<UUID> profileIds) {
+        Set<UUID> starredIds = profileIds.isEmpty()
+                ? Set.of()
+                : userProfileRepository.findStarredIds(profileIds, viewerId);
+        return new ViewerOverlay(viewerId, likes.likedIds(), likes.countDeltas(), starredIds);
+    }
+
+    private UUID getCurrentUserId() {
+        IUserProfile principal =
+                (IUserProfile) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return UUID.fromString(principal.getUserId());
+    }
+}
@@ -0,0 +1,261 @@
+-- Выполняется после того, как Hibernate обновил схему (spring.jpa.defer-datasource-initialization)
+
+-- Словарь терминов: теги, навыки и интересы хранятся как id из terms.
+-- Нормализация та же, что в TermDictionary.normalize
+CREATE OR REPLACE FUNCTION normalize_term(value text) RETURNS text LANGUAGE sql IMMUTABLE AS
+    'SELECT lower(btrim(regexp_replace(value, ''[[:space:]]+'', '' '', ''g'')))';
+
+-- Перенос строк из таблиц со строковыми значениями в таблицы id с последующим удалением
+-- старой таблицы. На новой базе и при повторном запуске ничего не делает
+CREATE OR REPLACE FUNCTION migrate_to_terms(old_table text, owner_column text, value_column text, new_table text)
+RETURNS void LANGUAGE plpgsql AS '
+BEGIN
+    IF to_regclass(old_table) IS NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format(''INSERT INTO terms (term)
+                    SELECT DISTINCT normalize_term(%1$I) FROM %2$I WHERE length(normalize_term(%1$I)) > 0
+                    ON CONFLICT (term) DO NOTHING'', value_column, old_table);
+    EXECUTE format(''INSERT INTO %1$I (%2$I, term_id)
+                    SELECT DISTINCT o.%2$I, d.id FROM %3$I o JOIN terms d ON d.term = normalize_term(o.%4$I)
+                    ON CONFLICT DO NOTHING'', new_table, owner_column, old_table, value_column);
+    EXECUTE format(''DROP TABLE %I'', old_table);
+END';
+
+SELECT migrate_to_terms('event_tags', 'event_id', 'tag', 'event_tag_terms');
+SELECT migrate_to_terms('project_tags', 'project_id', 'tag', 'project_tag_terms');
+SELECT migrate_to_terms('user_profile_skills', 'user_profile_id', 'skill', 'user_profile_skill_terms');
+SELECT migrate_to_terms('user_profile_interests', 'user_profile_id', 'interest', 'user_profile_interest_terms');
+
+-- Коррелированные EXISTS-подзапросы ищут строки коллекции по владельцу
+CREATE INDEX IF NOT EXISTS idx_event_tag_terms_event_id ON event_tag_terms (event_id);
+CREATE INDEX IF NOT EXISTS idx_project_tag_terms_project_id ON project_tag_terms (project_id);
+CREATE INDEX IF NOT EXISTS idx_user_profile_skill_terms_user_profile_id ON user_profile_skill_terms (user_profile_id);
+CREATE INDEX IF NOT EXISTS idx_user_profile_interest_terms_user_profile_id ON user_profile_interest_terms (user_profile_id);
+
+-- События и проекты берут id из последовательностей с шагом 50 (pooled в Hibernate), чтобы вставки
+-- шли пачками. Таблицы, созданные с identity, переводятся на последовательность, продолжающую их id
+ALTER TABLE events ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE projects ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('events_seq', max(id)) FROM events HAVING max(id) >= (SELECT last_value FROM events_seq);
+SELECT setval('projects_seq', max(id)) FROM projects HAVING max(id) >= (SELECT last_value FROM projects_seq);
+
+-- Календарь, ближайшие события и фильтр по периоду читают диапазон индекса вместо всей таблицы;
+-- id в ключе — для keyset-пагинации по (event_time, id)
+CREATE INDEX IF NOT EXISTS idx_events_event_time_id ON events (event_time, id);
+CREATE INDEX IF NOT EXISTS idx_events_organizer_id_event_time_id ON events (organizer_id, event_time, id);
+
+-- События рядом: ячейки geohash — диапазоны префиксов, колонка в collate "C" (см. NearbyEvents)
+CREATE INDEX IF NOT EXISTS idx_events_geohash ON events (geohash);
+
+-- Та же кодировка, что Geohash.encode (12 символов): массовый импорт считает geohash прямо в INSERT
+CREATE OR REPLACE FUNCTION geohash_encode(latitude double precision, longitude double precision)
+RETURNS text LANGUAGE plpgsql IMMUTABLE STRICT AS '
+DECLARE
+    base32 CONSTANT text := ''0123456789bcdefghjkmnpqrstuvwxyz'';
+    min_lat double precision := -90;
+    max_lat double precision := 90;
+    min_lon double precision := -180;
+    max_lon double precision := 180;
+    mid double precision;
+    hash text := '''';
+    lon_bit boolean := true;
+    bits int := 0;
+    value int := 0;
+BEGIN
+    WHILE length(hash) < 12 LOOP
+        value := value * 2;
+        IF lon_bit THEN
+            mid := (min_lon + max_lon) / 2;
+            IF longitude >= mid THEN
+                value := value + 1;
+                min_lon := mid;
+            ELSE
+                max_lon := mid;
+            END IF;
+        ELSE
+            mid := (min_lat + max_lat) / 2;
+            IF latitude >= mid THEN
+                value := value + 1;
+                min_lat := mid;
+            ELSE
+                max_lat := mid;
+            END IF;
+        END IF;
+        lon_bit := NOT lon_bit;
+
+        bits := bits + 1;
+        IF bits = 5 THEN
+            hash := hash || substr(base32, value + 1, 1);
+            bits := 0;
+            value := 0;
+        END IF;
+    END LOOP;
+    RETURN hash;
+END';
+
+-- Полнотекстовый поиск. Теги, навыки и интересы лежат в отдельных таблицах, поэтому их текст
+-- копируется триггерами в search_tags/search_terms, а search_vector вычисляется из колонок строки
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_tags text NOT NULL DEFAULT '';
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('russian', search_tags), 'B') ||
+    setweight(to_tsvector('russian', coalesce(place, '')), 'C') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'D')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_events_search_vector ON events USING gin (search_vector);
+
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS search_tags text NOT NULL DEFAULT '';
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('russian', search_tags), 'B') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'D')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_projects_search_vector ON projects USING gin (search_vector);
+
+ALTER TABLE user_profiles ADD COLUMN IF NOT EXISTS search_terms text NOT NULL DEFAULT '';
+ALTER TABLE user_profiles ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(first_name, '') || ' ' || coalesce(last_name, '')), 'A') ||
+    setweight(to_tsvector('russian', search_terms), 'B') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'D')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_user_profiles_search_vector ON user_profiles USING gin (search_vector);
+
+-- Тело функций в одинарных кавычках: скрипт делится на запросы по ';' вне строк.
+-- Триггеры срабатывают на запрос, а не на строку: владелец переписывается один раз,
+-- сколько бы его терминов ни вставил или удалил запрос (пакетная вставка, COPY-импорт).
+-- Таблицы переходов допустимы только у триггера на одно событие, поэтому их три на таблицу
+CREATE OR REPLACE FUNCTION refresh_event_search_tags() RETURNS trigger LANGUAGE plpgsql AS '
+DECLARE
+    targets bigint[];
+BEGIN
+    IF TG_OP = ''INSERT'' THEN
+        SELECT array_agg(DISTINCT event_id) INTO targets FROM new_rows;
+    ELSIF TG_OP = ''DELETE'' THEN
+        SELECT array_agg(DISTINCT event_id) INTO targets FROM old_rows;
+    ELSE
+        SELECT array_agg(event_id) INTO targets
+        FROM (SELECT event_id FROM new_rows UNION SELECT event_id FROM old_rows) r;
+    END IF;
+    UPDATE events e
+    SET search_tags = coalesce((SELECT string_agg(d.term, '' '') FROM event_tag_terms t JOIN terms d ON d.id = t.term_id
+                               WHERE t.event_id = e.id), '''')
+    WHERE e.id = ANY(targets);
+    RETURN NULL;
+END';
+
+DROP TRIGGER IF EXISTS trg_event_tag_terms_search ON event_tag_terms;
+DROP TRIGGER IF EXISTS trg_event_tag_terms_search_insert ON event_tag_terms;
+CREATE TRIGGER trg_event_tag_terms_search_insert
+    AFTER INSERT ON event_tag_terms REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_event_search_tags();
+DROP TRIGGER IF EXISTS trg_event_tag_terms_search_update ON event_tag_terms;
+CREATE TRIGGER trg_event_tag_terms_search_update
+    AFTER UPDATE ON event_tag_terms REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_event_search_tags();
+DROP TRIGGER IF EXISTS trg_event_tag_terms_search_delete ON event_tag_terms;
+CREATE TRIGGER trg_event_tag_terms_search_delete
+    AFTER DELETE ON event_tag_terms REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_event_search_tags();
+
+CREATE OR REPLACE FUNCTION refresh_project_search_tags() RETURNS trigger LANGUAGE plpgsql AS '
+DECLARE
+    targets bigint[];
+BEGIN
+    IF TG_OP = ''INSERT'' THEN
+        SELECT array_agg(DISTINCT project_id) INTO targets FROM new_rows;
+    ELSIF TG_OP = ''DELETE'' THEN
+        SELECT array_agg(DISTINCT project_id) INTO targets FROM old_rows;
+    ELSE
+        SELECT array_agg(project_id) INTO targets
+        FROM (SELECT project_id FROM new_rows UNION SELECT project_id FROM old_rows) r;
+    END IF;
+    UPDATE projects p
+    SET search_tags = coalesce((SELECT string_agg(d.term, '' '') FROM project_tag_terms t JOIN terms d ON d.id = t.term_id
+                               WHERE t.project_id = p.id), '''')
+    WHERE p.id = ANY(targets);
+    RETURN NULL;
+END';
+
+DROP TRIGGER IF EXISTS trg_project_tag_terms_search ON project_tag_terms;
+DROP TRIGGER IF EXISTS trg_project_tag_terms_search_insert ON project_tag_terms;
+CREATE TRIGGER trg_project_tag_terms_search_insert
+    AFTER INSERT ON project_tag_terms REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_project_search_tags();
+DROP TRIGGER IF EXISTS trg_project_tag_terms_search_update ON project_tag_terms;
+CREATE TRIGGER trg_project_tag_terms_search_update
+    AFTER UPDATE ON project_tag_terms REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_project_search_tags();
+DROP TRIGGER IF EXISTS trg_project_tag_terms_search_delete ON project_tag_terms;
+CREATE TRIGGER trg_project_tag_terms_search_delete
+    AFTER DELETE ON project_tag_terms REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_project_search_tags();
+
+CREATE OR REPLACE FUNCTION refresh_user_profile_search_terms() RETURNS trigger LANGUAGE plpgsql AS '
+DECLARE
+    targets uuid[];
+BEGIN
+    IF TG_OP = ''INSERT'' THEN
+        SELECT array_agg(DISTINCT user_profile_id) INTO targets FROM new_rows;
+    ELSIF TG_OP = ''DELETE'' THEN
+        SELECT array_agg(DISTINCT user_profile_id) INTO targets FROM old_rows;
+    ELSE
+        SELECT array_agg(user_profile_id) INTO targets
+        FROM (SELECT user_profile_id FROM new_rows UNION SELECT user_profile_id FROM old_rows) r;
+    END IF;
+    UPDATE user_profiles u
+    SET search_terms = concat_ws('' '',
+            (SELECT string_agg(d.term, '' '') FROM user_profile_skill_terms s JOIN terms d ON d.id = s.term_id
+             WHERE s.user_profile_id = u.id),
+            (SELECT string_agg(d.term, '' '') FROM user_profile_interest_terms i JOIN terms d ON d.id = i.term_id
+             WHERE i.user_profile_id = u.id))
+    WHERE u.id = ANY(targets);
+    RETURN NULL;
+END';
+
+DROP TRIGGER IF EXISTS trg_user_profile_skill_terms_search ON user_profile_skill_terms;
+DROP TRIGGER IF EXISTS trg_user_profile_skill_terms_search_insert ON user_profile_skill_terms;
+CREATE TRIGGER trg_user_profile_skill_terms_search_insert
+    AFTER INSERT ON user_profile_skill_terms REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_user_profile_search_terms();
+DROP TRIGGER IF EXISTS trg_user_profile_skill_terms_search_update ON user_profile_skill_terms;
+CREATE TRIGGER trg_user_profile_skill_terms_search_update
+    AFTER UPDATE ON user_profile_skill_terms REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_user_profile_search_terms();
+DROP TRIGGER IF EXISTS trg_user_profile_skill_terms_search_delete ON user_profile_skill_terms;
+CREATE TRIGGER trg_user_profile_skill_terms_search_delete
+    AFTER DELETE ON user_profile_skill_terms REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_user_profile_search_terms();
+
+DROP TRIGGER IF EXISTS trg_user_profile_interest_terms_search ON user_profile_interest_terms;
+DROP TRIGGER IF EXISTS trg_user_profile_interest_terms_search_insert ON user_profile_interest_terms;
+CREATE TRIGGER trg_user_profile_interest_terms_search_insert
+    AFTER INSERT ON user_profile_interest_terms REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_user_profile_search_terms();
+DROP TRIGGER IF EXISTS trg_user_profile_interest_terms_search_update ON user_profile_interest_terms;
+CREATE TRIGGER trg_user_profile_interest_terms_search_update
+    AFTER UPDATE ON user_profile_interest_terms REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_user_profile_search_terms();
+DROP TRIGGER IF EXISTS trg_user_profile_interest_terms_search_delete ON user_profile_interest_terms;
+CREATE TRIGGER trg_user_profile_interest_terms_search_delete
+    AFTER DELETE ON user_profile_interest_terms REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_user_profile_search_terms();
+
+-- Заполнение для строк, созданных до появления триггеров
+UPDATE events e
+SET search_tags = (SELECT string_agg(d.term, ' ') FROM event_tag_terms t JOIN terms d ON d.id = t.term_id
+                   WHERE t.event_id = e.id)
+WHERE e.search_tags = '' AND EXISTS (SELECT 1 FROM event_tag_terms t WHERE t.event_id = e.id);
+UPDATE projects p
+SET search_tags = (SELECT string_agg(d.term, ' ') FROM project_tag_terms t JOIN terms d ON d.id = t.term_id
+                   WHERE t.project_id = p.id)
+WHERE p.search_tags = '' AND EXISTS (SELECT 1 FROM project_tag_terms t WHERE t.project_id = p.id);
+UPDATE user_profiles u
+SET search_terms = concat_ws(' ',
+        (SELECT string_agg(d.term, ' ') FROM user_profile_skill_terms s JOIN terms d ON d.id = s.term_id
+         WHERE s.user_profile_id = u.id),
+        (SELECT string_agg(d.term, ' ') FROM user_profile_interest_terms i JOIN terms d ON d.id = i.term_id
+         WHERE i.user_profile_id = u.id))
+WHERE u.search_terms = ''
+  AND (EXISTS (SELECT 1 FROM user_profile_skill_terms s WHERE s.user_profile_id = u.id)
+       OR EXISTS (SELECT 1 FROM user_profile_interest_terms i WHERE i.user_profile_id = u.id));
@@ -0,0 +1,162 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dtos.event.EventRequestDto;
+import com.example.demo.dtos.event.EventResponse;
+import com.example.demo.entities.UserProfile;
+import com.example.demo.entities.UserStatus;
+import com.example.demo.repositories.EventRepository;
+import com.example.demo.repositories.UserProfileRepository;
+import com.example.demo.security.CustomJwtAuthentication;
+import com.example.demo.security.CustomUserPrincipal;
+
+// Пачка создаётся настоящей транзакцией с коммитом, чтобы в счёт попали и
+// обработчики после коммита (индексы рекомендаций, поиска и подсказок).
+// Считаются все JDBC-запросы, а не только выполненные Hibernate
+@SpringBootTest(properties = "cache.detail.enabled=false")
+@ActiveProfiles("dev")
+class BatchCreateStatementCountTests {
+
+    private static final long MAX_BATCH_CREATE_STATEMENTS = 16;
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UserProfile organizer;
+    private final List<Long> created = new ArrayList<>();
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        organizer = transactionTemplate.execute(status -> userProfileRepository.save(UserProfile.builder()
+                .id(UUID.randomUUID())
+                .firstName("Batch")
+                .lastName("Organizer")
+                .status(UserStatus.WANT_COLLABORATE)
+                .build()));
+
+        CustomUserPrincipal principal = new CustomUserPrincipal(
+                organizer.getId().toString(), "test", "test@example.com", "Test User", List.of());
+        SecurityContextHolder.getContext().setAuthentication(new CustomJwtAuthentication(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        transactionTemplate.executeWithoutResult(status -> {
+            eventRepository.deleteAllById(created);
+            userProfileRepository.deleteById(organizer.getId());
+        });
+    }
+
+    @Test
+    void eventBatchCreateStatementCountDoesNotDependOnBatchSize() {
+        long small = countStatements(10);
+        long large = countStatements(50);
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(MAX_BATCH_CREATE_STATEMENTS);
+    }
+
+    private long countStatements(int batchSize) {
+        List<EventRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            requests.add(EventRequestDto.builder()
+                    .name("Batch event " + i)
+                    .eventTime(LocalDateTime.now().plusDays(i))
+                    .tags(Set.of("java", "batch" + batchSize + "-" + i))
+                    .build());
+        }
+
+        STATEMENTS.set(0);
+        List<EventResponse> responses = eventService.createAll(requests);
+        long statements = STATEMENTS.get();
+
+        responses.forEach(response -> created.add(response.id()));
+        return statements;
+    }
+
+    private static DataSource counting(DataSource dataSource) {
+        return proxy(DataSource.class, (method, args) -> {
+            Object result = method.invoke(dataSource, args);
+            return result instanceof Connection connection ? counting(connection) : result;
+        });
+    }
+
+    // Выборка из пула последовательности зависит от его остатка, а не от размера пачки
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, (method, args) -> {
+            String name = method.getName();
+            boolean prepare = name.equals("prepareStatement") || name.equals("prepareCall");
+            if (name.equals("createStatement") || prepare && !((String) args[0]).contains("nextval")) {
+                STATEMENTS.incrementAndGet();
+            }
+            return method.invoke(connection, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Invocation invocation) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return invocation.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+}
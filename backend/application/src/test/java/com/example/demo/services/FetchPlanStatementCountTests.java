@@ -0,0 +1,210 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dtos.UserProfile.UserProfileSearchRequest;
+import com.example.demo.dtos.event.EventSearchRequest;
+import com.example.demo.dtos.project.ProjectSearchRequest;
+import com.example.demo.entities.Event;
+import com.example.demo.entities.Project;
+import com.example.demo.entities.ProjectStatus;
+import com.example.demo.entities.UserProfile;
+import com.example.demo.entities.UserStatus;
+import com.example.demo.security.CustomJwtAuthentication;
+import com.example.demo.security.CustomUserPrincipal;
+import com.example.demo.services.terms.TermDictionary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "cache.detail.enabled=false"
+})
+@ActiveProfiles("dev")
+@Transactional
+class FetchPlanStatementCountTests {
+
+    private static final int USERS = 30;
+    private static final int ITEMS = 60;
+    private static final long MAX_LIST_STATEMENTS = 12;
+    private static final long MAX_DETAIL_STATEMENTS = 8;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private TermDictionary termDictionary;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<UserProfile> users;
+    private List<Event> events;
+    private List<Project> projects;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            UserProfile user = UserProfile.builder()
+                    .id(UUID.randomUUID())
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .status(UserStatus.WANT_COLLABORATE)
+                    .skillIds(termDictionary.idsOf(Set.of("java", "skill" + i)))
+                    .interestIds(termDictionary.idsOf(Set.of("hackathons", "interest" + i)))
+                    .build();
+            entityManager.persist(user);
+            users.add(user);
+        }
+        for (int i = 0; i < USERS; i++) {
+            users.get(i).getStars().add(users.get((i + 1) % USERS));
+        }
+
+        events = new ArrayList<>();
+        projects = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Event event = new Event();
+            event.setName("Event " + i);
+            event.setEventTime(LocalDateTime.now().plusDays(i));
+            event.setPlace("Place " + i);
+            event.setTagIds(termDictionary.idsOf(Set.of("java", "tag" + i)));
+            event.setOrganizer(users.get(i % USERS));
+            event.getParticipants().addAll(users.subList(0, 5 + i % 10));
+            event.getLikes().addAll(users.subList(0, i % USERS));
+            entityManager.persist(event);
+            events.add(event);
+
+            Project project = new Project();
+            project.setName("Project " + i);
+            project.setTagIds(termDictionary.idsOf(Set.of("java", "tag" + i)));
+            project.setStatus(ProjectStatus.PUBLIC);
+            project.setOrganizer(users.get(i % USERS));
+            project.getParticipants().addAll(users.subList(0, 5 + i % 10));
+            project.getLikes().addAll(users.subList(0, i % USERS));
+            entityManager.persist(project);
+            projects.add(project);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        CustomUserPrincipal principal = new CustomUserPrincipal(
+                users.get(0).getId().toString(), "test", "test@example.com", "Test User", List.of());
+        SecurityContextHolder.getContext().setAuthentication(new CustomJwtAuthentication(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void eventListStatementCountDoesNotDependOnPageSize() {
+        long small = countStatements(() -> eventService.findAll(null, 10));
+        long large = countStatements(() -> eventService.findAll(null, 50));
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(MAX_LIST_STATEMENTS);
+    }
+
+    @Test
+    void eventSearchStatementCountDoesNotDependOnPageSize() {
+        EventSearchRequest request = new EventSearchRequest(null, null, null, null, null, Set.of("java"), false);
+
+        long small = countStatements(() -> eventService.search(request, null, 10));
+        long large = countStatements(() -> eventService.search(request, null, 50));
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(MAX_LIST_STATEMENTS);
+    }
+
+    @Test
+    void eventDetailStatementCountIsBounded() {
+        long statements = countStatements(() -> eventService.getById(events.get(ITEMS - 1).getId(), null));
+
+        assertThat(statements).isLessThanOrEqualTo(MAX_DETAIL_STATEMENTS);
+    }
+
+    @Test
+    void projectListStatementCountDoesNotDependOnPageSize() {
+        long small = countStatements(() -> projectService.findAll(null, 10));
+        long large = countStatements(() -> projectService.findAll(null, 50));
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(MAX_LIST_STATEMENTS);
+    }
+
+    @Test
+    void projectSearchStatementCountDoesNotDependOnPageSize() {
+        ProjectSearchRequest request = new ProjectSearchRequest(null, Set.of("java"), false);
+
+        long small = countStatements(() -> projectService.search(request, null, 10));
+        long large = countStatements(() -> projectService.search(request, null, 50));
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(MAX_LIST_STATEMENTS);
+    }
+
+    @Test
+    void projectDetailStatementCountIsBounded() {
+        long statements = countStatements(() -> projectService.getById(projects.get(ITEMS - 1).getId(), null));
+
+        assertThat(statements).isLessThanOrEqualTo(MAX_DETAIL_STATEMENTS);
+    }
+
+    @Test
+    void userProfileListStatementCountDoesNotDependOnPageSize() {
+        UserProfileSearchRequest request = new UserProfileSearchRequest(null, Set.of("java"), null, null);
+
+        long listSmall = countStatements(() -> userProfileService.findAll(null, 5));
+        long listLarge = countStatements(() -> userProfileService.findAll(null, 25));
+        long searchSmall = countStatements(() -> userProfileService.search(request, null, 5));
+        long searchLarge = countStatements(() -> userProfileService.search(request, null, 25));
+
+        assertThat(listLarge).isEqualTo(listSmall).isLessThanOrEqualTo(MAX_LIST_STATEMENTS);
+        assertThat(searchLarge).isEqualTo(searchSmall).isLessThanOrEqualTo(MAX_LIST_STATEMENTS);
+    }
+
+    @Test
+    void userProfileDetailStatementCountIsBounded() {
+        long statements = countStatements(() -> userProfileService.getById(users.get(USERS - 1).getId()));
+
+        assertThat(statements).isLessThanOrEqualTo(MAX_DETAIL_STATEMENTS);
+    }
+
+    private long countStatements(Runnable call) {
+        entityManager.clear();
+        statistics.clear();
+
+        call.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+}
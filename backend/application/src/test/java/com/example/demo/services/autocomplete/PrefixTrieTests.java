@@ -0,0 +1,105 @@
+package com.example.demo.services.autocomplete;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dtos.autocomplete.TermSuggestion;
+
+class PrefixTrieTests {
+
+    @Test
+    void completesMostUsedFirstThenAlphabetically() {
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.put("java", 3);
+        trie.put("javascript", 5);
+        trie.put("jax", 3);
+        trie.put("go", 7);
+        trie.rebuildTops();
+
+        assertThat(trie.complete("ja", 10)).containsExactly(
+                new TermSuggestion("javascript", 5),
+                new TermSuggestion("java", 3),
+                new TermSuggestion("jax", 3));
+        assertThat(trie.complete("", 1)).containsExactly(new TermSuggestion("go", 7));
+        assertThat(trie.complete("python", 10)).isEmpty();
+    }
+
+    @Test
+    void addUpdatesTopsAlongThePath() {
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("java", 1);
+        trie.add("javascript", 1);
+        trie.add("javascript", 1);
+
+        assertThat(trie.complete("j", 10)).containsExactly(
+                new TermSuggestion("javascript", 2),
+                new TermSuggestion("java", 1));
+        assertThat(trie.complete("javas", 10)).containsExactly(new TermSuggestion("javascript", 2));
+    }
+
+    @Test
+    void negativeDeltaPrunesEmptyBranch() {
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("java", 1);
+        trie.add("javascript", 1);
+
+        trie.add("javascript", -1);
+
+        assertThat(trie.complete("javas", 10)).isEmpty();
+        assertThat(trie.complete("j", 10)).containsExactly(new TermSuggestion("java", 1));
+
+        trie.add("javascript", 1);
+        assertThat(trie.complete("javas", 10)).containsExactly(new TermSuggestion("javascript", 1));
+    }
+
+    @Test
+    void zeroedTermWithChildrenKeepsItsSubtree() {
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("java", 1);
+        trie.add("javascript", 1);
+
+        trie.add("java", -1);
+
+        assertThat(trie.complete("java", 10)).containsExactly(new TermSuggestion("javascript", 1));
+        assertThat(trie.complete("", 10)).containsExactly(new TermSuggestion("javascript", 1));
+    }
+
+    @Test
+    void decrementRecomputesTopKFromSiblings() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.put("a1", 5);
+        trie.put("a2", 4);
+        trie.put("a3", 3);
+        trie.rebuildTops();
+        assertThat(trie.complete("a", 10)).extracting(TermSuggestion::term).containsExactly("a1", "a2");
+
+        trie.add("a1", -5);
+
+        assertThat(trie.complete("a", 10)).containsExactly(
+                new TermSuggestion("a2", 4),
+                new TermSuggestion("a3", 3));
+    }
+
+    @Test
+    void countNeverGoesBelowZero() {
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("go", 1);
+
+        trie.add("go", -5);
+        trie.add("go", 1);
+
+        assertThat(trie.complete("g", 10)).containsExactly(new TermSuggestion("go", 1));
+    }
+
+    @Test
+    void negativeDeltaForUnknownTermIsNoOp() {
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("go", 2);
+
+        trie.add("golang", -1);
+        trie.add("rust", -1);
+
+        assertThat(trie.complete("", 10)).containsExactly(new TermSuggestion("go", 2));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.services.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class GeohashTests {
+
+    private static final int MAX_CELLS = 16;
+
+    @Test
+    void encodesReferenceVectors() {
+        assertThat(Geohash.encode(42.6, -5.6, 5)).isEqualTo("ezs42");
+        assertThat(Geohash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(Geohash.encode(0, 0)).isEqualTo("s00000000000");
+        assertThat(Geohash.encode(-90, -180)).isEqualTo("000000000000");
+        assertThat(Geohash.encode(90, 180)).isEqualTo("zzzzzzzzzzzz");
+    }
+
+    @Test
+    void coversSmallBoxWithFineCells() {
+        List<String> cells = Geohash.cover(55.74, 37.60, 55.76, 37.64, MAX_CELLS);
+
+        assertThat(cells).isNotEmpty().hasSizeLessThanOrEqualTo(MAX_CELLS);
+        assertThat(cells).allSatisfy(cell -> assertThat(cell).hasSizeGreaterThanOrEqualTo(5));
+        assertCovers(cells, 55.74, 37.60, 55.76, 37.64);
+    }
+
+    @Test
+    void coversBoxesTouchingThePoles() {
+        List<String> north = Geohash.cover(89.5, -180, 90, 180, MAX_CELLS);
+        List<String> south = Geohash.cover(-90, -180, -89.5, 180, MAX_CELLS);
+
+        assertThat(north).isNotEmpty().hasSizeLessThanOrEqualTo(MAX_CELLS);
+        assertThat(south).isNotEmpty().hasSizeLessThanOrEqualTo(MAX_CELLS);
+        assertCovers(north, 89.5, -180, 90, 180);
+        assertCovers(south, -90, -180, -89.5, 180);
+    }
+
+    // Окрестность антимеридиана NearbyEvents расширяет до всей полосы долгот
+    @Test
+    void coversBoxesAtTheAntimeridian() {
+        List<String> band = Geohash.cover(-1, -180, 1, 180, MAX_CELLS);
+        List<String> east = Geohash.cover(10, 179.5, 11, 180, MAX_CELLS);
+        List<String> west = Geohash.cover(10, -180, 11, -179.5, MAX_CELLS);
+
+        assertCovers(band, -1, -180, 1, 180);
+        assertCovers(east, 10, 179.5, 11, 180);
+        assertCovers(west, 10, -180, 11, -179.5);
+        assertThat(east).noneMatch(west::contains);
+    }
+
+    @Test
+    void returnsNothingWhenEvenOneCharacterCellsAreTooMany() {
+        assertThat(Geohash.cover(-90, -180, 90, 180, 31)).isEmpty();
+        assertThat(Geohash.cover(-90, -180, 90, 180, 32)).hasSize(32).allSatisfy(cell -> assertThat(cell).hasSize(1));
+    }
+
+    private static void assertCovers(List<String> cells, double minLat, double minLon, double maxLat, double maxLon) {
+        assertThat(cells).isNotEmpty();
+        int length = cells.get(0).length();
+        assertThat(cells).allSatisfy(cell -> assertThat(cell).hasSize(length));
+
+        int steps = 20;
+        for (int i = 0; i <= steps; i++) {
+            for (int j = 0; j <= steps; j++) {
+                double lat = minLat + (maxLat - minLat) * i / steps;
+                double lon = minLon + (maxLon - minLon) * j / steps;
+                String hash = Geohash.encode(lat, lon);
+                assertThat(cells).as("cell for %s, %s", lat, lon).anyMatch(hash::startsWith);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.services.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CoOccurrenceIndexTests {
+
+    @Test
+    void scoresNeighborsByCosine() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(10, 100);
+        index.rebuild(List.of(new long[] {1, 2}, new long[] {1, 2}, new long[] {1, 3}));
+
+        List<CoOccurrenceIndex.Neighbor> similar = index.similarTo(1, 10);
+
+        assertThat(similar).extracting(CoOccurrenceIndex.Neighbor::id).containsExactly(2L, 3L);
+        assertThat(similar.get(0).score()).isCloseTo(2 / Math.sqrt(3 * 2), within(1e-9));
+        assertThat(similar.get(1).score()).isCloseTo(1 / Math.sqrt(3 * 1), within(1e-9));
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsOnlyBestNeighborsPerRow() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(1, 100);
+        index.rebuild(List.of(new long[] {1, 2}, new long[] {1, 2}, new long[] {1, 3}));
+
+        assertThat(index.similarTo(1, 10)).extracting(CoOccurrenceIndex.Neighbor::id).containsExactly(2L);
+    }
+
+    @Test
+    void longHistoriesCountOnlyTowardsDegree() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(10, 2);
+        index.rebuild(List.of(new long[] {1, 2, 3}, new long[] {1, 2}));
+
+        List<CoOccurrenceIndex.Neighbor> similar = index.similarTo(1, 10);
+
+        assertThat(similar).extracting(CoOccurrenceIndex.Neighbor::id).containsExactly(2L);
+        assertThat(similar.get(0).score()).isCloseTo(1 / Math.sqrt(2 * 2), within(1e-9));
+        assertThat(index.similarTo(3, 10)).isEmpty();
+    }
+
+    @Test
+    void partitionedRebuildMatchesSinglePass() {
+        List<long[]> userItems = List.of(
+                new long[] {1, 2, 3}, new long[] {2, 3, 4}, new long[] {1, 4}, new long[] {5, 6, 1}, new long[] {7});
+        CoOccurrenceIndex single = new CoOccurrenceIndex(10, 100);
+        CoOccurrenceIndex partitioned = new CoOccurrenceIndex(10, 100, 3);
+        single.rebuild(userItems);
+        partitioned.rebuild(userItems);
+
+        assertThat(partitioned.size()).isEqualTo(single.size());
+        for (long item = 1; item <= 7; item++) {
+            assertThat(partitioned.similarTo(item, 10)).isEqualTo(single.similarTo(item, 10));
+        }
+    }
+
+    @Test
+    void applyAddsAndRemovesPairs() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(10, 100);
+        index.rebuild(List.of(new long[] {1, 2}));
+
+        index.apply(3, new long[] {1}, 1);
+
+        assertThat(index.similarTo(3, 10)).extracting(CoOccurrenceIndex.Neighbor::id).containsExactly(1L);
+        assertThat(index.similarTo(1, 10)).extracting(CoOccurrenceIndex.Neighbor::id).containsExactlyInAnyOrder(2L, 3L);
+
+        index.apply(3, new long[] {1}, -1);
+
+        assertThat(index.similarTo(3, 10)).isEmpty();
+        assertThat(index.similarTo(1, 10)).extracting(CoOccurrenceIndex.Neighbor::id).containsExactly(2L);
+    }
+
+    @Test
+    void applyDoesNotGrowFullRows() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(1, 100);
+        index.rebuild(List.of(new long[] {1, 2}));
+
+        index.apply(3, new long[] {1}, 1);
+
+        assertThat(index.similarTo(1, 10)).extracting(CoOccurrenceIndex.Neighbor::id).containsExactly(2L);
+        assertThat(index.similarTo(3, 10)).extracting(CoOccurrenceIndex.Neighbor::id).containsExactly(1L);
+    }
+
+    @Test
+    void unknownItemHasNoNeighbors() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(10, 100);
+        index.rebuild(List.of(new long[] {1, 2}));
+
+        assertThat(index.similarTo(42, 10)).isEmpty();
+        assertThat(index.similarTo(1, 0)).isEmpty();
+    }
+}
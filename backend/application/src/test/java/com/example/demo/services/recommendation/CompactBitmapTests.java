@@ -0,0 +1,95 @@
+package com.example.demo.services.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CompactBitmapTests {
+
+    private static final int ARRAY_LIMIT = 4096;
+
+    @Test
+    void keepsSortedDistinctValuesInArrayMode() {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (int value : new int[] {9, 3, 7, 3, 0, 9, 12}) {
+            bitmap.add(value);
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(5);
+        assertThat(values(bitmap)).containsExactly(0, 3, 7, 9, 12);
+        assertThat(bitmap.contains(7)).isTrue();
+        assertThat(bitmap.contains(8)).isFalse();
+    }
+
+    @Test
+    void removesInArrayMode() {
+        CompactBitmap bitmap = new CompactBitmap();
+        bitmap.add(1);
+        bitmap.add(2);
+        bitmap.add(3);
+
+        bitmap.remove(2);
+        bitmap.remove(42);
+
+        assertThat(values(bitmap)).containsExactly(1, 3);
+    }
+
+    @Test
+    void keepsEveryValueWhenSwitchingToBitmap() {
+        CompactBitmap bitmap = new CompactBitmap();
+        // В обратном порядке, чтобы каждая вставка сдвигала массив
+        for (int value = ARRAY_LIMIT - 1; value >= 0; value--) {
+            bitmap.add(value * 2);
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(ARRAY_LIMIT);
+
+        bitmap.add(1);
+
+        assertThat(bitmap.cardinality()).isEqualTo(ARRAY_LIMIT + 1);
+        assertThat(bitmap.contains(0)).isTrue();
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains((ARRAY_LIMIT - 1) * 2)).isTrue();
+        assertThat(bitmap.contains(3)).isFalse();
+        assertThat(values(bitmap)).startsWith(0, 1, 2, 4).endsWith((ARRAY_LIMIT - 1) * 2);
+    }
+
+    @Test
+    void duplicateAtLimitDoesNotSwitch() {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (int value = 0; value < ARRAY_LIMIT; value++) {
+            bitmap.add(value);
+        }
+
+        bitmap.add(0);
+
+        assertThat(bitmap.cardinality()).isEqualTo(ARRAY_LIMIT);
+    }
+
+    @Test
+    void removesAfterSwitch() {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (int value = 0; value <= ARRAY_LIMIT; value++) {
+            bitmap.add(value);
+        }
+
+        bitmap.remove(0);
+        bitmap.remove(ARRAY_LIMIT);
+        bitmap.remove(ARRAY_LIMIT + 100);
+        bitmap.add(5);
+
+        assertThat(bitmap.cardinality()).isEqualTo(ARRAY_LIMIT - 1);
+        assertThat(bitmap.contains(0)).isFalse();
+        assertThat(bitmap.contains(ARRAY_LIMIT)).isFalse();
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(values(bitmap)).first().isEqualTo(1);
+    }
+
+    private static List<Integer> values(CompactBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.services.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class LongFloatMapTests {
+
+    @Test
+    void accumulatesDeltasPerKey() {
+        LongFloatMap map = new LongFloatMap();
+        map.add(7, 1);
+        map.add(7, 2.5f);
+        map.add(9, -1);
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(7)).isEqualTo(3.5f);
+        assertThat(map.get(9)).isEqualTo(-1f);
+        assertThat(map.get(8)).isZero();
+    }
+
+    @Test
+    void keepsEveryEntryAcrossGrowth() {
+        LongFloatMap map = new LongFloatMap(2);
+        for (long key = 1; key <= 10_000; key++) {
+            map.add(key, key);
+        }
+        // Второй проход попадает в уже занятые ячейки и ходит по цепочкам пробирования
+        for (long key = 1; key <= 10_000; key++) {
+            map.add(key, 1);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long key = 1; key <= 10_000; key++) {
+            assertThat(map.get(key)).isEqualTo(key + 1f);
+        }
+        assertThat(map.get(10_001)).isZero();
+    }
+
+    @Test
+    void probesPastCollidingKeys() {
+        // Ключи, кратные степени двойки, часто падают в одну ячейку маленькой таблицы
+        LongFloatMap map = new LongFloatMap(4);
+        long[] keys = {1L << 32, 2L << 32, 3L << 32, -1, Long.MIN_VALUE, Long.MAX_VALUE};
+        for (int i = 0; i < keys.length; i++) {
+            map.add(keys[i], i + 1);
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(map.get(keys[i])).isEqualTo(i + 1f);
+        }
+        assertThat(map.size()).isEqualTo(keys.length);
+    }
+
+    @Test
+    void forEachVisitsEveryEntryOnce() {
+        LongFloatMap map = new LongFloatMap();
+        for (long key = 1; key <= 100; key++) {
+            map.add(key, key * 2);
+        }
+
+        Map<Long, Float> visited = new HashMap<>();
+        map.forEach((key, value) -> assertThat(visited.put(key, value)).isNull());
+
+        assertThat(visited).hasSize(100).containsEntry(1L, 2f).containsEntry(100L, 200f);
+    }
+
+    @Test
+    void zeroKeyIsReserved() {
+        LongFloatMap map = new LongFloatMap();
+        map.add(1, 5);
+
+        assertThatThrownBy(() -> map.add(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.get(0)).isZero();
+        assertThat(map.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.services.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class MinHashIndexTests {
+
+    private static final UUID A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID C = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+
+    private final MinHashIndex index = new MinHashIndex();
+
+    @Test
+    void identicalSetsShareEveryBucketAndScoreOne() {
+        index.put(new MinHashIndex.Features(A, Set.of("s:java", "s:sql", "i:hackathons")));
+        index.put(new MinHashIndex.Features(B, Set.of("s:java", "s:sql", "i:hackathons")));
+
+        assertThat(index.similarTo(A, 10)).containsExactly(new MinHashIndex.Similar(B, 1.0));
+        assertThat(index.similarTo(B, 10)).containsExactly(new MinHashIndex.Similar(A, 1.0));
+    }
+
+    @Test
+    void disjointSetsDoNotBecomeCandidates() {
+        index.put(new MinHashIndex.Features(A, Set.of("s:java", "s:sql")));
+        index.put(new MinHashIndex.Features(B, Set.of("s:figma", "i:design")));
+
+        assertThat(index.similarTo(A, 10)).isEmpty();
+    }
+
+    @Test
+    void ranksCloserSetsFirst() {
+        Set<String> base = Set.of("t1", "t2", "t3", "t4", "t5", "t6", "t7", "t8", "t9", "t10");
+        index.put(new MinHashIndex.Features(A, base));
+        index.put(new MinHashIndex.Features(B, Set.of("t1", "t2", "t3", "t4", "t5", "t6", "t7", "t8", "t9", "x")));
+        index.put(new MinHashIndex.Features(C, Set.of("t1", "t2", "t3", "t4", "t5", "t6", "t7", "y", "z", "w")));
+
+        List<MinHashIndex.Similar> similar = index.similarTo(A, 10);
+
+        assertThat(similar).extracting(MinHashIndex.Similar::id).startsWith(B);
+        assertThat(similar.get(0).similarity()).isGreaterThan(0.6).isLessThan(1.0);
+    }
+
+    @Test
+    void removingOneMemberOfSharedBucketsKeepsTheOthers() {
+        Set<String> tokens = Set.of("s:java", "s:kotlin");
+        index.put(new MinHashIndex.Features(A, tokens));
+        index.put(new MinHashIndex.Features(B, tokens));
+        index.put(new MinHashIndex.Features(C, tokens));
+
+        index.remove(B);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.similarTo(A, 10)).extracting(MinHashIndex.Similar::id).containsExactly(C);
+        assertThat(index.similarTo(B, 10)).isEmpty();
+    }
+
+    @Test
+    void putWithNewTokensLeavesOldBuckets() {
+        index.put(new MinHashIndex.Features(A, Set.of("s:java", "s:sql")));
+        index.put(new MinHashIndex.Features(B, Set.of("s:java", "s:sql")));
+
+        index.put(new MinHashIndex.Features(B, Set.of("s:figma", "i:design")));
+
+        assertThat(index.similarTo(A, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void emptyTokensAreNotIndexed() {
+        index.put(new MinHashIndex.Features(A, Set.of("s:java")));
+        index.put(new MinHashIndex.Features(A, Set.of()));
+
+        assertThat(index.size()).isZero();
+        assertThat(index.similarTo(A, 10)).isEmpty();
+    }
+
+    @Test
+    void keepsOnlyTopK() {
+        Set<String> tokens = Set.of("s:java");
+        index.put(new MinHashIndex.Features(A, tokens));
+        index.put(new MinHashIndex.Features(B, tokens));
+        index.put(new MinHashIndex.Features(C, tokens));
+
+        assertThat(index.similarTo(A, 1)).hasSize(1);
+        assertThat(index.similarTo(A, 0)).isEmpty();
+    }
+
+    @Test
+    void changesDuringRebuildAreAppliedOverTheSnapshot() {
+        Set<String> tokens = Set.of("s:java", "s:sql");
+        index.beginRebuild();
+        index.put(new MinHashIndex.Features(C, tokens));
+        index.remove(B);
+
+        index.replaceAll(List.of(
+                new MinHashIndex.Features(A, tokens),
+                new MinHashIndex.Features(B, tokens)));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.similarTo(A, 10)).extracting(MinHashIndex.Similar::id).containsExactly(C);
+    }
+}
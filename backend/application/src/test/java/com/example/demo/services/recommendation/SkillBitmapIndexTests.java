@@ -0,0 +1,119 @@
+package com.example.demo.services.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.entities.UserStatus;
+
+class SkillBitmapIndexTests {
+
+    private static final UUID A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID C = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+    private static final UUID D = UUID.fromString("00000000-0000-0000-0000-00000000000d");
+
+    private final SkillBitmapIndex index = new SkillBitmapIndex();
+
+    @Test
+    void greedilyCoversRequiredSkills() {
+        index.put(profile(A, null, "java", "sql"));
+        index.put(profile(B, null, "java"));
+        index.put(profile(C, null, "react"));
+
+        TeamSuggestion suggestion = index.cover(Set.of("java", "sql", "react"), Set.of(), Set.of(), 5);
+
+        assertThat(suggestion.memberIds()).containsExactly(A, C);
+        assertThat(suggestion.coveredSkills()).containsExactlyInAnyOrder("java", "sql", "react");
+        assertThat(suggestion.uncoveredSkills()).isEmpty();
+    }
+
+    @Test
+    void prefersUsersLookingForTeamOnTies() {
+        index.put(profile(A, UserStatus.EXPLORING_OPPORTUNITIES, "java"));
+        index.put(profile(B, UserStatus.LOOKING_FOR_TEAM, "java"));
+
+        assertThat(index.cover(Set.of("java"), Set.of(), Set.of(), 5).memberIds()).containsExactly(B);
+    }
+
+    @Test
+    void skipsUnavailableRemovedAndExcludedUsers() {
+        index.put(profile(A, UserStatus.NOT_AVAILABLE, "java"));
+        index.put(profile(B, null, "java"));
+        index.put(profile(C, null, "java"));
+        index.remove(B);
+
+        assertThat(index.cover(Set.of("java"), Set.of(), Set.of(C), 5).memberIds()).isEmpty();
+        assertThat(index.cover(Set.of("java"), Set.of(), Set.of(), 5).memberIds()).containsExactly(C);
+    }
+
+    @Test
+    void reportsUnknownAndAlreadyCoveredSkills() {
+        index.put(profile(A, null, "java"));
+
+        TeamSuggestion suggestion = index.cover(Set.of("java", "sql", "cobol"), Set.of("sql"), Set.of(), 5);
+
+        assertThat(suggestion.memberIds()).containsExactly(A);
+        assertThat(suggestion.coveredSkills()).containsExactlyInAnyOrder("java", "sql");
+        assertThat(suggestion.uncoveredSkills()).containsExactly("cobol");
+    }
+
+    @Test
+    void stopsAtMaxMembers() {
+        index.put(profile(A, null, "java"));
+        index.put(profile(B, null, "sql"));
+        index.put(profile(C, null, "react"));
+
+        TeamSuggestion suggestion = index.cover(Set.of("java", "sql", "react"), Set.of(), Set.of(), 2);
+
+        assertThat(suggestion.memberIds()).hasSize(2);
+        assertThat(suggestion.uncoveredSkills()).hasSize(1);
+    }
+
+    @Test
+    void putReplacesPreviousSkills() {
+        index.put(profile(A, null, "java"));
+        index.put(profile(A, null, "sql"));
+
+        assertThat(index.cover(Set.of("java"), Set.of(), Set.of(), 5).memberIds()).isEmpty();
+        assertThat(index.cover(Set.of("sql"), Set.of(), Set.of(), 5).memberIds()).containsExactly(A);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    // Навык с числом пользователей больше предела массива хранится битовой картой
+    @Test
+    void coversWithSkillsHeldByManyUsers() {
+        List<SkillBitmapIndex.SkillProfile> snapshot = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            snapshot.add(profile(new UUID(1, i), null, "java"));
+        }
+        snapshot.add(profile(D, null, "java", "go"));
+        index.replaceAll(snapshot);
+
+        TeamSuggestion suggestion = index.cover(Set.of("java", "go"), Set.of(), Set.of(), 5);
+
+        assertThat(suggestion.memberIds()).containsExactly(D);
+        assertThat(index.cover(Set.of("java"), Set.of(), Set.of(D), 5).memberIds()).containsExactly(new UUID(1, 0));
+    }
+
+    @Test
+    void changesDuringRebuildAreAppliedOverTheSnapshot() {
+        index.beginRebuild();
+        index.put(profile(C, null, "java"));
+        index.remove(A);
+
+        index.replaceAll(List.of(profile(A, null, "java"), profile(B, null, "sql")));
+
+        TeamSuggestion suggestion = index.cover(Set.of("java", "sql"), Set.of(), Set.of(), 5);
+        assertThat(suggestion.memberIds()).containsExactlyInAnyOrder(B, C);
+    }
+
+    private static SkillBitmapIndex.SkillProfile profile(UUID id, UserStatus status, String... skills) {
+        return new SkillBitmapIndex.SkillProfile(id, status, Set.of(skills));
+    }
+}